@@ -1,30 +1,91 @@
-import java.util.Random;
-
 /**
- * Agent thread: randomly places two distinct components and waits for assembly completion.
+ * Agent thread: places two distinct components, chosen by its PlacementPolicy
+ * (random by default), and waits for assembly completion.
+ * When given a shared DroneQuota, the agent reserves each drone from it before placing
+ * and shuts its station down once the global quota is exhausted. When given a
+ * ComponentInventory, the agent takes each pair from stock first and blocks (or
+ * switches to another pair) while stock is short.
  */
 public class Agent implements Runnable {
-    private final AssemblyMonitor monitor;
-    private final Random random = new Random();
+    private final AssemblyStation monitor;
+    private final DroneQuota quota;
+    private final int line;
+    private volatile Workload.Stream draws = new Workload().newStream();
+    private volatile PlacementPolicy policy = PlacementPolicy.RANDOM;
+    private volatile ComponentInventory inventory;
+    private volatile boolean switchOnStockout;
+
+    public Agent(AssemblyStation monitor) {
+        this(monitor, null, 0);
+    }
 
-    public Agent(AssemblyMonitor monitor) {
+    /**
+     * Setup an agent for one line of a sharded factory.
+     *
+     * @param monitor The AssemblyStation of this line.
+     * @param quota   The global quota shared by all lines, or null for the station's own quota.
+     * @param line    This line's index, used as its home stripe in the quota.
+     */
+    public Agent(AssemblyStation monitor, DroneQuota quota, int line) {
         this.monitor = monitor;
+        this.quota = quota;
+        this.line = line;
+    }
+
+    /**
+     * Sets how the agent chooses which pair to place.
+     *
+     * @param policy The placement policy.
+     */
+    public void setPolicy(PlacementPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Draws every placed pair from a bounded inventory instead of an infinite supply.
+     *
+     * @param inventory        The stock to take pairs from.
+     * @param switchOnStockout true to place another in-stock pair rather than wait.
+     */
+    public void setInventory(ComponentInventory inventory, boolean switchOnStockout) {
+        this.inventory = inventory;
+        this.switchOnStockout = switchOnStockout;
+    }
+
+    /**
+     * Draws this agent's pairs from a run's workload instead of an unseeded uniform one.
+     *
+     * @param workload The run's workload; the agent takes its own stream from it.
+     */
+    public void setWorkload(Workload workload) {
+        this.draws = workload.newStream();
     }
 
     @Override
     public void run() {
         Component[] components = Component.values();
 
-        while (!monitor.isDone()) {
-            Component comp1 = components[random.nextInt(components.length)];
-            Component comp2;
-            do {
-                comp2 = components[random.nextInt(components.length)];
-            } while (comp2 == comp1);
+        while (!monitor.isDone() && (quota == null || quota.tryAcquire(line))) {
+            Component missing = policy.nextMissing(monitor, draws);
+            if (inventory != null) {
+                try {
+                    missing = inventory.takePair(missing, switchOnStockout);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break; // terminate cleanly
+                }
+            }
+            Component comp1 = components[(missing.ordinal() + 1) % components.length];
+            Component comp2 = components[(missing.ordinal() + 2) % components.length];
 
             monitor.placeComponents(comp1, comp2);
         }
 
-        System.out.println(Thread.currentThread().getName() + " terminated.");
+        if (quota != null) {
+            // Global quota reached: finish what is on the table, then release technicians.
+            monitor.shutdown();
+        }
+
+        AssemblyLog.println(Thread.currentThread().getName() + " terminated.");
     }
 }
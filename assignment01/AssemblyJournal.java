@@ -0,0 +1,290 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Append-only binary journal of placements and completions, written through
+ * memory-mapped segments of the file.
+ * Appending claims a record slot with one atomic increment and writes 32 bytes into
+ * mapped memory; there is no system call, lock or allocation on that path, so it
+ * can run inside a station's monitor. A daemon thread calls force() on the segments
+ * written since its last pass every flush interval, so one sync covers a whole batch.
+ * <p>
+ * File layout (big-endian):
+ * <pre>
+ * header, 4096 bytes:
+ *   0  int   magic "DRJ1"        12 int   thread names stored
+ *   4  int   version (1)         16 long  records (updated on every force)
+ *   8  int   record size (32)    24 long  start, epoch millis
+ *   32..     thread names, each one length byte + UTF-8 bytes, in thread-id order
+ * record, 32 bytes, one per event:
+ *   0  byte  type (1 placed, 2 completed; 0 = slot never written)
+ *   1  byte  first component    2 byte second component    3 byte missing component
+ *   4  int   thread id (index into the header names)
+ *   8  long  time since the journal was opened, simulation-clock nanoseconds
+ *   16 int   drone number       20..31 reserved
+ * </pre>
+ * The type byte is written last, so a reader treats a zero type as a hole left by a
+ * writer that had claimed its slot but not finished when the count was forced.
+ * {@link #DISABLED} turns every call into a constant return.
+ */
+public class AssemblyJournal {
+
+    public static final int MAGIC = 0x44524A31;  // "DRJ1"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 4096;
+    public static final int RECORD_BYTES = 32;
+    public static final byte PLACED = 1;
+    public static final byte COMPLETED = 2;
+
+    static final int NAMES_OFFSET = 32;
+    private static final int SEGMENT_RECORDS = 1 << 15;  // 1 MB per mapping
+    private static final long SEGMENT_BYTES = (long) SEGMENT_RECORDS * RECORD_BYTES;
+    private static final int MAX_SEGMENTS = 1 << 16;
+
+    /** Journal that records nothing; the default for every station. */
+    public static final AssemblyJournal DISABLED = new AssemblyJournal();
+
+    private final boolean enabled;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final AtomicReferenceArray<MappedByteBuffer> segments;
+    private final SimulationClock clock;
+    private final long startNanos;
+    private final AtomicLong next = new AtomicLong();
+    private final ThreadLocal<Integer> threadIds;
+    private int threadCount;           // guarded by this
+    private int namesEnd = NAMES_OFFSET;  // guarded by this
+
+    private final Thread forcer;
+    private final long flushMillis;
+    private volatile boolean running;
+    private long forcedUpTo;           // guarded by forceLock
+    private final Object forceLock = new Object();
+
+    private final LatencyHistogram appendNanos = new LatencyHistogram();
+    private final AtomicLong forces = new AtomicLong();
+    private final AtomicLong forceNanos = new AtomicLong();
+    private final AtomicLong maxBatch = new AtomicLong();
+
+    private AssemblyJournal() {
+        this.enabled = false;
+        this.path = null;
+        this.channel = null;
+        this.header = null;
+        this.segments = null;
+        this.clock = RealTimeClock.INSTANCE;
+        this.startNanos = 0;
+        this.threadIds = null;
+        this.forcer = null;
+        this.flushMillis = 0;
+    }
+
+    /**
+     * Creates (or truncates) the journal file and starts the background forcer.
+     *
+     * @param path        The journal file.
+     * @param clock       Clock the event timestamps are taken from.
+     * @param flushMillis Wall time between force() passes.
+     * @throws IOException if the file cannot be created or mapped.
+     */
+    public AssemblyJournal(Path path, SimulationClock clock, long flushMillis) throws IOException {
+        if (flushMillis <= 0) {
+            throw new IllegalArgumentException("flushMillis must be > 0");
+        }
+        this.enabled = true;
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        this.segments = new AtomicReferenceArray<>(MAX_SEGMENTS);
+        this.clock = clock;
+        this.startNanos = clock.nanoTime();
+        this.threadIds = ThreadLocal.withInitial(this::registerThread);
+        this.flushMillis = flushMillis;
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(8, RECORD_BYTES);
+        header.putLong(24, System.currentTimeMillis());
+        segment(0);
+
+        this.running = true;
+        this.forcer = new Thread(this::forceLoop, "JournalForcer");
+        this.forcer.setDaemon(true);
+        this.forcer.start();
+    }
+
+    /**
+     * Records a placement by the calling (agent) thread.
+     *
+     * @param drone   Number the pair will have once assembled.
+     * @param comp1   First component placed.
+     * @param comp2   Second component placed.
+     * @param missing The missing component.
+     */
+    public void placed(int drone, Component comp1, Component comp2, Component missing) {
+        if (!enabled) return;
+        append(PLACED, drone, comp1, comp2, missing);
+    }
+
+    /**
+     * Records a completion by the calling (technician) thread.
+     *
+     * @param drone   The drone number just assembled.
+     * @param missing The component the technician supplied.
+     */
+    public void completed(int drone, Component missing) {
+        if (!enabled) return;
+        append(COMPLETED, drone, null, null, missing);
+    }
+
+    private void append(byte type, int drone, Component comp1, Component comp2, Component missing) {
+        long t0 = System.nanoTime();
+        long slot = next.getAndIncrement();
+        MappedByteBuffer seg = segment((int) (slot / SEGMENT_RECORDS));
+        int at = (int) (slot % SEGMENT_RECORDS) * RECORD_BYTES;
+        seg.put(at + 1, ordinal(comp1));
+        seg.put(at + 2, ordinal(comp2));
+        seg.put(at + 3, ordinal(missing));
+        seg.putInt(at + 4, threadIds.get());
+        seg.putLong(at + 8, clock.nanoTime() - startNanos);
+        seg.putInt(at + 16, drone);
+        seg.put(at, type);
+        appendNanos.record(System.nanoTime() - t0);
+    }
+
+    private static byte ordinal(Component c) {
+        return c == null ? -1 : (byte) c.ordinal();
+    }
+
+    /**
+     * Returns the mapping of a segment, mapping it on first use. The forcer maps the
+     * next segment ahead of time, so appenders normally never get here.
+     */
+    private MappedByteBuffer segment(int index) {
+        MappedByteBuffer seg = segments.get(index);
+        if (seg != null) return seg;
+        synchronized (segments) {
+            seg = segments.get(index);
+            if (seg == null) {
+                try {
+                    seg = channel.map(FileChannel.MapMode.READ_WRITE,
+                            HEADER_BYTES + index * SEGMENT_BYTES, SEGMENT_BYTES);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot map journal segment " + index + " of " + path, e);
+                }
+                segments.set(index, seg);
+            }
+            return seg;
+        }
+    }
+
+    private synchronized Integer registerThread() {
+        int id = threadCount++;
+        byte[] name = Thread.currentThread().getName().getBytes(StandardCharsets.UTF_8);
+        int len = Math.min(name.length, 255);
+        // Names that no longer fit are left out; the reader falls back to "thread #id".
+        if (namesEnd + 1 + len <= HEADER_BYTES) {
+            header.put(namesEnd, (byte) len);
+            for (int i = 0; i < len; i++) {
+                header.put(namesEnd + 1 + i, name[i]);
+            }
+            namesEnd += 1 + len;
+            header.putInt(12, threadCount);
+        }
+        return id;
+    }
+
+    private void forceLoop() {
+        while (running) {
+            try {
+                Thread.sleep(flushMillis);
+            } catch (InterruptedException e) {
+                break;
+            }
+            flush(false);
+            // Map the next segment before appenders reach it.
+            long claimed = next.get();
+            if (claimed % SEGMENT_RECORDS > SEGMENT_RECORDS / 2) {
+                segment((int) (claimed / SEGMENT_RECORDS) + 1);
+            }
+        }
+    }
+
+    /**
+     * Forces every segment written since the last pass, then the header with the record count.
+     * <p>
+     * A slot is claimed before its record is written, so a pass can force a record that is
+     * still being filled in and count it as forced. The final pass therefore forces every
+     * segment and the header (which also holds late thread names) even if nothing new was claimed.
+     *
+     * @param closing Whether this is the final pass from {@link #close()}.
+     */
+    private void flush(boolean closing) {
+        synchronized (forceLock) {
+            long upTo = next.get();
+            if (upTo == forcedUpTo && !closing) return;
+            long start = System.nanoTime();
+            int last = (int) ((upTo - 1) / SEGMENT_RECORDS);
+            for (int s = closing ? 0 : (int) (forcedUpTo / SEGMENT_RECORDS); s <= last; s++) {
+                segment(s).force();
+            }
+            header.putLong(16, upTo);
+            header.force();
+            forceNanos.addAndGet(System.nanoTime() - start);
+            forces.incrementAndGet();
+            maxBatch.accumulateAndGet(upTo - forcedUpTo, Math::max);
+            forcedUpTo = upTo;
+        }
+    }
+
+    /**
+     * Stops the forcer, forces the tail and trims the file to the records written.
+     * Call once no thread appends any more.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    public void close() throws IOException {
+        if (!enabled) return;
+        running = false;
+        forcer.interrupt();
+        try {
+            forcer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush(true);
+        try {
+            channel.truncate(HEADER_BYTES + next.get() * RECORD_BYTES);
+        } catch (IOException e) {
+            // Some platforms refuse to shrink a mapped file; the header count still bounds the records.
+        }
+        channel.close();
+    }
+
+    public long getRecords() {
+        return next.get();
+    }
+
+    /**
+     * Prints records written, force batching and append cost.
+     *
+     * @param out Where to print the summary.
+     */
+    public void report(PrintStream out) {
+        if (!enabled) return;
+        long n = forces.get();
+        out.printf("Journal: %d records to %s, %d force() calls (avg batch %.0f, max %d, %.1f ms total)%n",
+                next.get(), path, n, n == 0 ? 0.0 : (double) next.get() / n, maxBatch.get(), forceNanos.get() / 1e6);
+        out.printf("Journal append (ns): p50 %d, p99 %d, p99.9 %d, max %d%n",
+                appendNanos.percentile(0.50), appendNanos.percentile(0.99),
+                appendNanos.percentile(0.999), appendNanos.percentile(1.0));
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * Console trace for the assembly line.
+ * Monitors and participants print through here so benchmarks and large runs can
+ * switch the per-handoff output off; System.out is itself a shared lock.
+ */
+public final class AssemblyLog {
+
+    private static volatile boolean enabled = true;
+
+    private AssemblyLog() { }
+
+    /**
+     * Turns the trace on or off for the whole process.
+     *
+     * @param on true to print, false to stay silent.
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void printf(String format, Object... args) {
+        if (enabled) {
+            System.out.printf(format, args);
+        }
+    }
+
+    public static void println(String line) {
+        if (enabled) {
+            System.out.println(line);
+        }
+    }
+}
@@ -1,12 +1,24 @@
 /**
  * Java monitor synchronizing Agent and Technicians for Autonomous Drone Assembly Line.
+ * With an AdaptiveSpin, waiters first spin outside the monitor on volatile hints
+ * ({@code offered}, {@code tableOccupied}) and only enter wait() if that fails.
  */
-public class AssemblyMonitor {
+public class AssemblyMonitor implements AssemblyStation {
 
 	private Component c1, c2, missing;
-    private boolean tableOccupied;
+    private volatile boolean tableOccupied;
+    private volatile Component offered;  // missing of an unclaimed pair, else null; spin hint only
+    private boolean claimed;
+    private boolean closed;
     private int assembledCount;
+    private HandoffProbe probe = HandoffProbe.DISABLED;
+    private FairnessTracker fairness = FairnessTracker.DISABLED;
+    private AssemblyJournal journal = AssemblyJournal.DISABLED;
+    private SimulationClock clock = RealTimeClock.INSTANCE;
+    private final int[] waiting = new int[Component.values().length];
+    private long placedAt, lastCompletedAt;
     private final int maxDrones;
+    private final AdaptiveSpin spin;
 
 	/**
 	* Setup the Assembly Monitor.
@@ -14,10 +26,21 @@ public class AssemblyMonitor {
 	* @param maxDrones The maximum number of drones to be assembled before termination.
 	*/
     public AssemblyMonitor(int maxDrones) {
+        this(maxDrones, AdaptiveSpin.DISABLED);
+    }
+
+	/**
+	* Setup the Assembly Monitor with spin-then-wait handoffs.
+	*
+	* @param maxDrones The maximum number of drones to be assembled before termination.
+	* @param spin      Spin/yield phase run before every wait().
+	*/
+    public AssemblyMonitor(int maxDrones, AdaptiveSpin spin) {
         if (maxDrones <= 0) {
             throw new IllegalArgumentException("maxDrones must be > 0");
         }
         this.maxDrones = maxDrones;
+        this.spin = spin;
         this.tableOccupied = false;
         this.assembledCount = 0;
     }
@@ -29,42 +52,54 @@ public class AssemblyMonitor {
 	 * @param comp1 The first random component placed on the belt by the agent.
 	 * @param comp2 The second random, but distinct component, placed on the belt by the agent.
      */
-    public synchronized void placeComponents(Component comp1, Component comp2) {
-        // Wait until table is free (unless we are done).
-        while (!isDone() && tableOccupied) {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                return; // clean exit if interrupted
+    public void placeComponents(Component comp1, Component comp2) {
+        synchronized (this) {
+            // Wait until table is free (unless we are done).
+            while (!isDone() && tableOccupied) {
+                try {
+                    clock.waitOn(this);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return; // clean exit if interrupted
+                }
             }
-        }
-        if (isDone()) return;
-
-        // Defensive validation to maintain invariants.
-        if (comp1 == null || comp2 == null || comp1 == comp2) {
-            throw new IllegalArgumentException("Agent must place two distinct non-null components.");
-        }
-
-        // Place components and compute missing.
-        this.c1 = comp1;
-        this.c2 = comp2;
-        this.missing = computeMissing(comp1, comp2);
-        this.tableOccupied = true;
+            if (isDone()) return;
 
-        System.out.printf("%s placed: %s + %s (missing %s)%n",
-                Thread.currentThread().getName(), comp1, comp2, missing);
+            // Defensive validation to maintain invariants.
+            if (comp1 == null || comp2 == null || comp1 == comp2) {
+                throw new IllegalArgumentException("Agent must place two distinct non-null components.");
+            }
 
-        // Wake all technicians (single wait-set => notifyAll).
-        notifyAll();
+            // Place components and compute missing.
+            this.c1 = comp1;
+            this.c2 = comp2;
+            this.missing = Component.missingFrom(comp1, comp2);
+            this.tableOccupied = true;
+            this.claimed = false;
+            this.placedAt = probe.now();
+            probe.placed(missing, placedAt, lastCompletedAt);
+            journal.placed(assembledCount + 1, comp1, comp2, missing);
+            this.offered = missing;
+
+            AssemblyLog.printf("%s placed: %s + %s (missing %s)%n",
+                    Thread.currentThread().getName(), comp1, comp2, missing);
+
+            // Wake all technicians (single wait-set => notifyAll).
+            clock.notifyAllOn(this);
+        }
 
-        // Wait until a technician clears the table, or system completes.
-        while (!isDone() && tableOccupied) {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                return;
+        // Spin outside the monitor first, so the technician can take it meanwhile.
+        spin.await(() -> !tableOccupied);
+
+        synchronized (this) {
+            // Wait until a technician clears the table, or system completes.
+            while (!isDone() && tableOccupied) {
+                try {
+                    clock.waitOn(this);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
             }
         }
     }
@@ -73,22 +108,41 @@ public class AssemblyMonitor {
      * Technician waits until:
      * - system not done, AND
      * - table occupied, AND
-     * - the missing component matches their owned component.
+     * - the missing component matches their owned component, AND
+     * - no other technician of the same component has claimed the pair, AND
+     * - in fair mode, no technician of the same component has been waiting longer.
      *
 	 * @param myComponent The missing component to be matched to the Technicians.
 	 *
      * @return true if technician should proceed with assembly, false if done (terminate).
      */
-    public synchronized boolean waitForTurn(Component myComponent) {
-        while (!isDone() && (!tableOccupied || missing != myComponent)) {
+    public boolean waitForTurn(Component myComponent) {
+        spin.await(() -> offered == myComponent);
+        synchronized (this) {
+            FairnessTracker.Waiter me = fairness.arrive(myComponent);
             try {
-                wait();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                return false; // terminate cleanly if interrupted
+                while (!isDone() && (!tableOccupied || claimed || missing != myComponent || !fairness.mayClaim(me))) {
+                    waiting[myComponent.ordinal()]++;
+                    try {
+                        clock.waitOn(this);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false; // terminate cleanly if interrupted
+                    } finally {
+                        waiting[myComponent.ordinal()]--;
+                    }
+                }
+                if (isDone()) return false;
+                claimed = true;
+                offered = null;
+                fairness.claimed(me);
+                me = null;
+                probe.claimed(missing, placedAt);
+                return true;
+            } finally {
+                fairness.left(me);
             }
         }
-        return !isDone();
     }
 
     /**
@@ -99,27 +153,74 @@ public class AssemblyMonitor {
         // sanity check
         if (isDone()) {
             // Still wake others so they can exit.
-            notifyAll();
+            clock.notifyAllOn(this);
             return;
         }
 
         assembledCount++;
         tableOccupied = false;
+        claimed = false;
+        lastCompletedAt = probe.completed();
+        journal.completed(assembledCount, missing);
 
-        System.out.printf("%s completed drone #%d%n",
+        AssemblyLog.printf("%s completed drone #%d%n",
                 Thread.currentThread().getName(), assembledCount);
 
         // Wake agent + other technicians.
-        notifyAll();
+        clock.notifyAllOn(this);
+    }
+
+    @Override
+    public synchronized int getIdleTechnicians(Component component) {
+        return waiting[component.ordinal()];
+    }
+
+    @Override
+    public synchronized void setProbe(HandoffProbe probe) {
+        this.probe = probe;
+    }
+
+    @Override
+    public synchronized void setClock(SimulationClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Attaches per-technician fairness tracking, optionally oldest-waiter-first.
+     * Set before any technician starts waiting.
+     *
+     * @param fairness The tracker, or FairnessTracker.DISABLED.
+     */
+    public synchronized void setFairness(FairnessTracker fairness) {
+        this.fairness = fairness;
+    }
+
+    /**
+     * Attaches an append-only journal of every placement and completion.
+     * Set before the agent starts; the journal is appended to inside the monitor.
+     *
+     * @param journal The journal, or AssemblyJournal.DISABLED.
+     */
+    public synchronized void setJournal(AssemblyJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Stops accepting pairs; waiters are released once the table is clear.
+     */
+    @Override
+    public synchronized void shutdown() {
+        closed = true;
+        clock.notifyAllOn(this);
     }
 
 	/**
 	* Checks to see if drone assembly is complete.
 	*
-	* @return true if complete, false otherwise.
+	* @return true if complete (or shut down with a clear table), false otherwise.
 	*/
     public synchronized boolean isDone() {
-        return assembledCount >= maxDrones;
+        return assembledCount >= maxDrones || (closed && !tableOccupied);
     }
 
 	/**
@@ -139,28 +240,4 @@ public class AssemblyMonitor {
     public synchronized Component getMissing() {
         return missing;
     }
-
-    /**
-	* Computes the third component not in (comp1, comp2).
-	*
-	*@param comp1 the first component placed on the assembly line by the agent.
-	*@param comp2 the second component placed on the assembly line by the agent.
-	*
-	*@return the missing third component.
-	*/
-    private Component computeMissing(Component comp1, Component comp2) {
-        // (comp1, comp2) are guaranteed distinct and non-null by caller validation.
-        if ((comp1 == Component.FRAME && comp2 == Component.PROPULSION) ||
-            (comp1 == Component.PROPULSION && comp2 == Component.FRAME)) {
-            return Component.FIRMWARE;
-        }
-
-        if ((comp1 == Component.FRAME && comp2 == Component.FIRMWARE) ||
-            (comp1 == Component.FIRMWARE && comp2 == Component.FRAME)) {
-            return Component.PROPULSION;
-        }
-
-        // Remaining valid pair: PROPULSION + FIRMWARE
-        return Component.FRAME;
-    }
 }
@@ -0,0 +1,229 @@
+import java.io.PrintStream;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-stage assembly behind the table.
+ * Instead of assembling a drone in one opaque sleep, a technician only fits its
+ * component (a short step at the table, {@link #DEFAULT_FIT_MS} by default) and
+ * hands the drone to the first stage (e.g. frame mount, propulsion
+ * install, firmware flash, QA). Every stage has its own pool of workers and reads
+ * from a bounded {@link StageQueue}; a full queue blocks the stage before it, so a
+ * slow stage backs up all the way to the technicians and the table.
+ * <p>
+ * Each stage reports its utilization (busy time over elapsed time x workers) and the
+ * depth of the queue in front of it, which points at the stage to scale. The table
+ * is reported as the stage in front of them, so a slow fit is named as well.
+ */
+public class AssemblyPipeline {
+
+    /** Stages used by a bare {@code --pipeline}. */
+    public static final String DEFAULT_STAGES = "mount:200,propulsion:300,firmware:150,qa:100";
+
+    /** Upper bound of a technician's fit at the table when a pipeline finishes the drone. */
+    public static final long DEFAULT_FIT_MS = 50;
+
+    private final Stage[] stages;
+    private final SimulationClock clock;
+    private final int queueCapacity;
+    private final AtomicInteger shipped = new AtomicInteger();
+
+    /**
+     * Builds the stages from a spec.
+     *
+     * @param spec          Comma-separated {@code NAME:MAX_MS[:WORKERS]}, in order, e.g.
+     *                      {@code mount:200,propulsion:300:2,qa:100}.
+     * @param queueCapacity Capacity of the queue in front of every stage.
+     * @param clock         Clock the stage work elapses on.
+     * @param workload      Source of the workers' work-time draws.
+     * @param threads       Creates the (unstarted) worker threads.
+     */
+    public AssemblyPipeline(String spec, int queueCapacity, SimulationClock clock, Workload workload,
+                            ThreadFactory threads) {
+        String[] parts = spec.split(",");
+        this.stages = new Stage[parts.length];
+        this.clock = clock;
+        this.queueCapacity = queueCapacity;
+        for (int s = 0; s < parts.length; s++) {
+            String[] f = parts[s].trim().split(":");
+            if (f.length < 2 || f.length > 3 || f[0].isEmpty()) {
+                throw new IllegalArgumentException("Bad pipeline stage (want NAME:MAX_MS[:WORKERS]): " + parts[s]);
+            }
+            int workers = f.length == 3 ? Integer.parseInt(f[2]) : 1;
+            if (workers <= 0) {
+                throw new IllegalArgumentException("Stage " + f[0] + " needs at least one worker");
+            }
+            stages[s] = new Stage(f[0], Long.parseLong(f[1]), workers, new StageQueue<>(queueCapacity, clock));
+        }
+        for (int s = 0; s < stages.length; s++) {
+            Stage next = s + 1 < stages.length ? stages[s + 1] : null;
+            Stage stage = stages[s];
+            for (int w = 0; w < stage.workers.length; w++) {
+                stage.workers[w] = new Worker(stage, next, workload.newStream());
+                stage.threads[w] = threads.newThread(stage.workers[w]);
+                stage.threads[w].setName("Stage-" + stage.name + (stage.workers.length > 1 ? "-" + w : ""));
+            }
+        }
+    }
+
+    /**
+     * Hands a drone whose pair has been assembled at the table to the first stage,
+     * blocking while that stage's queue is full.
+     *
+     * @param missing The component the technician fitted.
+     * @throws InterruptedException if interrupted while waiting for room.
+     */
+    public void submit(Component missing) throws InterruptedException {
+        stages[0].input.put(missing);
+    }
+
+    /**
+     * Starts every stage worker.
+     */
+    public void start() {
+        for (Stage stage : stages) {
+            for (Thread t : stage.threads) {
+                t.start();
+            }
+        }
+    }
+
+    /**
+     * Ends the input; call once every technician has terminated. The stages drain
+     * in order and their workers exit.
+     */
+    public void close() {
+        stages[0].input.close();
+    }
+
+    /**
+     * Waits for every stage worker to terminate.
+     *
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void join() throws InterruptedException {
+        for (Stage stage : stages) {
+            for (Thread t : stage.threads) {
+                t.join();
+            }
+        }
+    }
+
+    /**
+     * Returns the drones that left the last stage.
+     *
+     * @return the shipped count.
+     */
+    public int getShipped() {
+        return shipped.get();
+    }
+
+    /**
+     * Prints per-stage utilization, queue depth and backpressure, then the bottleneck.
+     * The table comes first: its utilization is the technicians' time at the table
+     * over elapsed time x the pairs it can hold at once.
+     *
+     * @param out           Where to print the report.
+     * @param elapsedNanos  Run time on the pipeline's clock, after {@link #join()}.
+     * @param tablePairs    Pairs that can be at the table (with a technician) at once.
+     * @param tableNanos    Summed time technicians spent assembling at the table.
+     * @param tableDone     Drones handed off at the table.
+     */
+    public void report(PrintStream out, long elapsedNanos, int tablePairs, long tableNanos, int tableDone) {
+        out.println("Pipeline (queue capacity " + queueCapacity + " in front of every stage):");
+        out.printf("%-14s %7s %7s %7s %10s %7s %12s %7s%n",
+                "stage", "workers", "done", "util %", "mean depth", "max", "blocked ms", "full");
+        double tableUtil = 100.0 * tableNanos / ((double) elapsedNanos * tablePairs);
+        out.printf("%-14s %7d %7d %7.1f %10s %7s %12s %7s%n",
+                "table (fit)", tablePairs, tableDone, tableUtil, "-", "-", "-", "-");
+        String bottleneck = "table (fit)";
+        double worst = tableUtil;
+        for (Stage stage : stages) {
+            long busy = 0;
+            int done = 0;
+            for (Worker w : stage.workers) {
+                busy += w.busyNanos;
+                done += w.processed;
+            }
+            double util = 100.0 * busy / ((double) elapsedNanos * stage.workers.length);
+            StageQueue<Component> q = stage.input;
+            // Blocked time is charged to the producers in front of the queue.
+            out.printf("%-14s %7d %7d %7.1f %10.2f %7d %12.1f %7d%n",
+                    stage.name, stage.workers.length, done, util, q.getMeanDepth(),
+                    q.getDepth().percentile(1.0), q.getBlockedNanos() / 1e6, q.getFullEvents());
+            if (util > worst) {
+                worst = util;
+                bottleneck = stage.name;
+            }
+        }
+        out.printf("Bottleneck: %s (%.1f%% busy); %d drones shipped%n", bottleneck, worst, shipped.get());
+    }
+
+    /**
+     * One stage: its input queue and its worker pool.
+     */
+    private static final class Stage {
+        final String name;
+        final long maxMillis;
+        final StageQueue<Component> input;
+        final Worker[] workers;
+        final Thread[] threads;
+        final AtomicInteger live;
+
+        Stage(String name, long maxMillis, int workers, StageQueue<Component> input) {
+            this.name = name;
+            this.maxMillis = maxMillis;
+            this.input = input;
+            this.workers = new Worker[workers];
+            this.threads = new Thread[workers];
+            this.live = new AtomicInteger(workers);
+        }
+    }
+
+    /**
+     * A stage worker: takes a drone, works on it for a random time, passes it on.
+     * The last worker of a stage to exit closes the next stage's queue.
+     */
+    private final class Worker implements Runnable {
+        private final Stage stage;
+        private final Stage next;
+        private final Workload.Stream draws;
+        long busyNanos;  // read only after the thread is joined
+        int processed;
+
+        Worker(Stage stage, Stage next, Workload.Stream draws) {
+            this.stage = stage;
+            this.next = next;
+            this.draws = draws;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Component drone;
+                while ((drone = stage.input.take()) != null) {
+                    long start = clock.nanoTime();
+                    if (stage.maxMillis > 0) {
+                        clock.sleep(draws.nextLong(stage.maxMillis));
+                    }
+                    busyNanos += clock.nanoTime() - start;
+                    processed++;
+                    if (next != null) {
+                        next.input.put(drone);
+                    } else {
+                        AssemblyLog.println(Thread.currentThread().getName() + " shipped drone #"
+                                + shipped.incrementAndGet());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (stage.live.decrementAndGet() == 0 && next != null) {
+                    next.input.close();
+                }
+            }
+
+            AssemblyLog.println(Thread.currentThread().getName() + " terminated.");
+        }
+    }
+}
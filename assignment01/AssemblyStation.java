@@ -0,0 +1,96 @@
+/**
+ * Common contract for the shared table between the Agent and the Technicians.
+ * Implementations differ only in how they synchronize the handoff.
+ */
+public interface AssemblyStation {
+
+    /**
+     * Agent places 2 distinct components on the table and waits until the pair
+     * has been handed off (or the quota is reached).
+     *
+     * @param comp1 The first component placed by the agent.
+     * @param comp2 The second, distinct component placed by the agent.
+     */
+    void placeComponents(Component comp1, Component comp2);
+
+    /**
+     * Technician waits until the component on the table that is missing matches
+     * their owned component.
+     *
+     * @param myComponent The component the technician has an infinite supply of.
+     *
+     * @return true if technician should proceed with assembly, false if done (terminate).
+     */
+    boolean waitForTurn(Component myComponent);
+
+    /**
+     * Technician waits for any pair it may assemble. Tables that stage several pairs
+     * may hand an idle technician a pair missing another component when that
+     * component's technicians are all busy (work stealing); others just defer to
+     * {@link #waitForTurn(Component)}.
+     *
+     * @param myComponent The component the technician has an infinite supply of.
+     * @param allowSteal  Whether the technician may take pairs owned by another pool.
+     *
+     * @return the missing component of the claimed pair, or null if done (terminate).
+     */
+    default Component waitForWork(Component myComponent, boolean allowSteal) {
+        return waitForTurn(myComponent) ? myComponent : null;
+    }
+
+    /**
+     * Technician calls this after assembling (outside any lock).
+     */
+    void completeAssembly();
+
+    /**
+     * Returns how many technicians owning the component are currently waiting for a
+     * pair. A snapshot for placement heuristics; it may be stale by the time it is used.
+     *
+     * @param component The technicians' component.
+     * @return the number of idle technicians of that component.
+     */
+    int getIdleTechnicians(Component component);
+
+    /**
+     * Attaches per-phase handoff instrumentation. Call before any thread uses the station.
+     *
+     * @param probe The probe to record into, or {@link HandoffProbe#DISABLED}.
+     */
+    void setProbe(HandoffProbe probe);
+
+    /**
+     * Routes the station's waits and wake-ups through a simulation clock, so a
+     * {@link VirtualClock} can tell when every thread is blocked. Call before any
+     * thread uses the station. Stations that block in primitives the clock cannot
+     * see accept real time only.
+     *
+     * @param clock The clock, or RealTimeClock.INSTANCE.
+     */
+    default void setClock(SimulationClock clock) {
+        if (clock != RealTimeClock.INSTANCE) {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " only runs on real time");
+        }
+    }
+
+    /**
+     * Stops the station early: no further pairs are accepted, the pair already on the
+     * table is still assembled, and then every waiter is released as if the quota
+     * had been reached.
+     */
+    void shutdown();
+
+    /**
+     * Checks to see if drone assembly is complete.
+     *
+     * @return true if complete, false otherwise.
+     */
+    boolean isDone();
+
+    /**
+     * Returns the total number of assembled drones so far.
+     *
+     * @return The number of assembled drones.
+     */
+    int getAssembledCount();
+}
@@ -0,0 +1,152 @@
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+
+/**
+ * Adapter that lets the benchmark drive assignment04's AssemblyTable through the
+ * AssemblyStation contract, with its simulated delays and console output turned off.
+ * <p>
+ * Both assignments define Agent and Technician in the default package, so the
+ * table's compiled classes are loaded from their own directory by an isolated class
+ * loader and called through method handles (one indirect call per table operation).
+ * Differences from the assignment01 stations:
+ * <ul>
+ *   <li>addComponents returns once the pair is on the table, so placeComponents
+ *       measures staging, not the full round trip.</li>
+ *   <li>getComponents both waits for and takes the pair, counting the drone, so the
+ *       assembly is instantaneous and completeAssembly has nothing left to do.</li>
+ *   <li>The table keeps no idle counts, has no probe hooks and cannot stop early.</li>
+ * </ul>
+ */
+public class AssemblyTableStation implements AssemblyStation {
+
+    private final Object table;
+    private final Object[] components;  // assignment04 Components, by Component ordinal
+    private final MethodHandle addComponents;
+    private final MethodHandle getComponents;
+    private final MethodHandle isDone;
+    private final MethodHandle getDronesAssembled;
+
+    /**
+     * Loads the table classes and creates a table for one run.
+     *
+     * @param loader    Loader from {@link #loader(Path)}.
+     * @param maxDrones Quota of the table.
+     * @param slots     Pairs the table can hold.
+     */
+    public AssemblyTableStation(ClassLoader loader, int maxDrones, int slots) {
+        try {
+            Class<?> tableClass = loader.loadClass("AssemblyTable");
+            Class<?> componentsClass = loader.loadClass("Components");
+            Class<?> profilerClass = loader.loadClass("LockProfiler");
+            this.table = tableClass.getConstructor(int.class, int.class, boolean.class, profilerClass)
+                    .newInstance(slots, maxDrones, slots > 1, profilerClass.getField("DISABLED").get(null));
+            tableClass.getMethod("setDelayScale", double.class).invoke(table, 0.0);
+            tableClass.getMethod("setQuiet", boolean.class).invoke(table, true);
+
+            // Both enums list frame, propulsion, firmware in the same order.
+            this.components = componentsClass.getEnumConstants();
+            if (components.length != Component.values().length) {
+                throw new IllegalStateException("Components does not match Component: " + components.length + " constants");
+            }
+
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            this.addComponents = lookup.findVirtual(tableClass, "addComponents",
+                            MethodType.methodType(void.class, componentsClass, componentsClass))
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class, Object.class));
+            this.getComponents = lookup.findVirtual(tableClass, "getComponents",
+                            MethodType.methodType(void.class, componentsClass))
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            this.isDone = lookup.findVirtual(tableClass, "isDone", MethodType.methodType(boolean.class))
+                    .asType(MethodType.methodType(boolean.class, Object.class));
+            this.getDronesAssembled = lookup.findVirtual(tableClass, "getDronesAssembled", MethodType.methodType(int.class))
+                    .asType(MethodType.methodType(int.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Not an assignment04 AssemblyTable: " + e, e);
+        }
+    }
+
+    /**
+     * Creates a class loader for compiled assignment04 classes that does not see
+     * assignment01's classes of the same names.
+     *
+     * @param classesDir Directory holding AssemblyTable.class, Components.class, ...
+     * @return the loader, to be shared by every table of a run.
+     * @throws IOException if the directory has no AssemblyTable.class.
+     */
+    public static ClassLoader loader(Path classesDir) throws IOException {
+        if (!classesDir.resolve("AssemblyTable.class").toFile().isFile()) {
+            throw new IOException("No AssemblyTable.class in " + classesDir + " (compile assignment04 first)");
+        }
+        URL url = classesDir.toUri().toURL();
+        return new URLClassLoader(new URL[] {url}, ClassLoader.getPlatformClassLoader());
+    }
+
+    @Override
+    public void placeComponents(Component comp1, Component comp2) {
+        try {
+            addComponents.invokeExact(table, components[comp1.ordinal()], components[comp2.ordinal()]);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override
+    public boolean waitForTurn(Component myComponent) {
+        try {
+            getComponents.invokeExact(table, components[myComponent.ordinal()]);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+        // The table returns without a pair only once the quota is reached.
+        return !isDone();
+    }
+
+    @Override
+    public void completeAssembly() {
+        // Already counted by getComponents.
+    }
+
+    @Override
+    public int getIdleTechnicians(Component component) {
+        return 0;
+    }
+
+    @Override
+    public void setProbe(HandoffProbe probe) {
+        // The table has no instrumentation hooks.
+    }
+
+    @Override
+    public void shutdown() {
+        throw new UnsupportedOperationException("AssemblyTable cannot be stopped before its quota");
+    }
+
+    @Override
+    public boolean isDone() {
+        try {
+            return (boolean) isDone.invokeExact(table);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @Override
+    public int getAssembledCount() {
+        try {
+            return (int) getDronesAssembled.invokeExact(table);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) return (RuntimeException) t;
+        if (t instanceof Error) throw (Error) t;
+        return new IllegalStateException(t);
+    }
+}
@@ -0,0 +1,120 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Driver for the non-blocking AsyncAssemblyMonitor: the agent keeps up to N pairs in
+ * flight, placing a new one from each drone's completion callback, and every
+ * technician is a callback. Agent, technicians and timers all share one small pool.
+ * Options:
+ * <ul>
+ *   <li>{@code --drones=N} quota (default 10000).</li>
+ *   <li>{@code --in-flight=N} pairs the agent keeps outstanding (default 1000).</li>
+ *   <li>{@code --technicians=N} technicians per component (default 1000).</li>
+ *   <li>{@code --threads=N} executor threads (default 2).</li>
+ *   <li>{@code --assembly-ms=N} upper bound of the simulated assembly time (default 500).</li>
+ *   <li>{@code --seed=N} seed every placement chain and technician stream (see {@link Workload}).</li>
+ *   <li>{@code --workload=uniform|skewed:COMPONENT:P|replay:FILE} distribution of the missing component.</li>
+ *   <li>{@code --trace} print every placement and completion.</li>
+ * </ul>
+ */
+public class AsyncAssemblyLine {
+
+    public static void main(String[] args) throws IOException {
+        int maxDrones = 10_000;
+        int inFlight = 1000;
+        int poolSize = 1000;
+        int threads = 2;
+        long assemblyMillis = 500;
+        Long seed = null;
+        ComponentDistribution distribution = null;
+        AssemblyLog.setEnabled(false);
+        for (String arg : args) {
+            if (arg.startsWith("--drones=")) {
+                maxDrones = Integer.parseInt(arg.substring("--drones=".length()));
+            } else if (arg.startsWith("--in-flight=")) {
+                inFlight = Integer.parseInt(arg.substring("--in-flight=".length()));
+            } else if (arg.startsWith("--technicians=")) {
+                poolSize = Integer.parseInt(arg.substring("--technicians=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--assembly-ms=")) {
+                assemblyMillis = Long.parseLong(arg.substring("--assembly-ms=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.startsWith("--workload=")) {
+                distribution = ComponentDistribution.parse(arg.substring("--workload=".length()));
+            } else if ("--trace".equals(arg)) {
+                AssemblyLog.setEnabled(true);
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        System.out.println("=== Asynchronous Drone Assembly Line ===");
+        System.out.println("Max drones: " + maxDrones + ", in flight: " + inFlight + ", technicians per component: "
+                + poolSize + ", executor threads: " + threads);
+        Workload workload = Workload.fromOptions(seed, distribution);
+        System.out.println("Workload: " + workload.describeSeed());
+        int threadsBefore = Thread.activeCount();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "async-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        AsyncAssemblyMonitor monitor = new AsyncAssemblyMonitor(maxDrones, executor);
+        List<AsyncTechnician> technicians = new ArrayList<>();
+        for (Component c : Component.values()) {
+            for (int i = 0; i < poolSize; i++) {
+                AsyncTechnician t = new AsyncTechnician(c, c + "-" + i, executor, assemblyMillis);
+                t.setDraws(workload.newStream());
+                technicians.add(t);
+                monitor.register(t);
+            }
+        }
+
+        long start = System.nanoTime();
+        AtomicInteger placed = new AtomicInteger();
+        int quota = maxDrones;
+        for (int i = 0; i < Math.min(inFlight, quota); i++) {
+            Workload.Stream draws = workload.newStream();
+            executor.execute(() -> placeNext(monitor, placed, quota, draws));
+        }
+        int peakThreads = Thread.activeCount();
+        int assembled = monitor.whenDone().join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+
+        int[] perComponent = new int[Component.values().length];
+        for (AsyncTechnician t : technicians) {
+            perComponent[t.getComponent().ordinal()] += t.getAssembled();
+        }
+        System.out.println();
+        for (Component c : Component.values()) {
+            System.out.printf("%-10s x%d: %d assembled%n", c, poolSize, perComponent[c.ordinal()]);
+        }
+        System.out.printf("Peak in flight: %d pairs on %d executor threads (%d threads added to the JVM)%n",
+                monitor.getMaxInFlight(), threads, Math.max(0, peakThreads - threadsBefore));
+        System.out.printf("=== All %d drones assembled in %.2f s (%.1f drones/s). System terminated. ===%n",
+                assembled, seconds, assembled / seconds);
+    }
+
+    // Agent step: place one pair and chain the next placement onto its completion. Each chain
+    // owns one stream; its placements run one after another, so the stream is never shared.
+    private static void placeNext(AsyncAssemblyMonitor monitor, AtomicInteger placed, int maxDrones,
+                                  Workload.Stream draws) {
+        if (placed.getAndIncrement() >= maxDrones) return;
+        Component[] components = Component.values();
+        Component missing = draws.nextMissing();
+        Component comp1 = components[(missing.ordinal() + 1) % components.length];
+        Component comp2 = components[(missing.ordinal() + 2) % components.length];
+
+        CompletableFuture<Integer> drone = monitor.placeComponentsAsync(comp1, comp2);
+        drone.thenRun(() -> placeNext(monitor, placed, maxDrones, draws));
+    }
+}
@@ -0,0 +1,165 @@
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Non-blocking counterpart of the AssemblyMonitor.
+ * {@link #placeComponentsAsync} returns at once with a future for the drone number;
+ * technicians are callbacks registered with {@link #register} instead of parked
+ * threads. A placed pair goes to an idle technician of its missing component, or
+ * waits in that component's queue until one finishes. No thread ever waits inside
+ * the monitor, so one small executor can drive thousands of in-flight pairs.
+ * <p>
+ * The lock only guards the queues and counters; futures are completed and
+ * technicians started outside it.
+ */
+public class AsyncAssemblyMonitor {
+
+    private static final Component[] COMPONENTS = Component.values();
+
+    private final int maxDrones;
+    private final Executor executor;
+    private final ArrayDeque<Pending>[] queued;
+    private final ArrayDeque<AsyncTechnician>[] idle;
+    private final CompletableFuture<Integer> done = new CompletableFuture<>();
+    private int accepted;
+    private int assembledCount;
+    private int inFlight, maxInFlight;
+
+    /**
+     * Setup the monitor.
+     *
+     * @param maxDrones The number of drones to assemble; further placements are rejected.
+     * @param executor  Runs technician completions, so callbacks never recurse on one stack.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public AsyncAssemblyMonitor(int maxDrones, Executor executor) {
+        if (maxDrones <= 0) {
+            throw new IllegalArgumentException("maxDrones must be > 0");
+        }
+        this.maxDrones = maxDrones;
+        this.executor = executor;
+        this.queued = new ArrayDeque[COMPONENTS.length];
+        this.idle = new ArrayDeque[COMPONENTS.length];
+        for (Component c : COMPONENTS) {
+            queued[c.ordinal()] = new ArrayDeque<>();
+            idle[c.ordinal()] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Places a pair without waiting for it to be assembled.
+     *
+     * @param comp1 The first component.
+     * @param comp2 The second, distinct component.
+     * @return a future completing with the drone number once a technician assembles the pair,
+     *         or failing with IllegalStateException if the quota is already fully placed.
+     */
+    public CompletableFuture<Integer> placeComponentsAsync(Component comp1, Component comp2) {
+        if (comp1 == null || comp2 == null || comp1 == comp2) {
+            throw new IllegalArgumentException("Agent must place two distinct non-null components.");
+        }
+        Component missing = Component.missingFrom(comp1, comp2);
+        Pending pair = new Pending(missing);
+        AsyncTechnician technician;
+        synchronized (this) {
+            if (accepted >= maxDrones) {
+                pair.drone.completeExceptionally(new IllegalStateException("All " + maxDrones + " drones placed"));
+                return pair.drone;
+            }
+            accepted++;
+            maxInFlight = Math.max(maxInFlight, ++inFlight);
+            technician = idle[missing.ordinal()].poll();
+            if (technician == null) {
+                queued[missing.ordinal()].add(pair);
+            }
+        }
+        AssemblyLog.printf("%s placed: %s + %s (missing %s)%n",
+                Thread.currentThread().getName(), comp1, comp2, missing);
+        if (technician != null) {
+            start(technician, pair);
+        }
+        return pair.drone;
+    }
+
+    /**
+     * Subscribes a technician; it is handed pairs of its component until the quota is met.
+     *
+     * @param technician The callback technician.
+     */
+    public void register(AsyncTechnician technician) {
+        Pending next;
+        synchronized (this) {
+            next = queued[technician.getComponent().ordinal()].poll();
+            if (next == null) {
+                idle[technician.getComponent().ordinal()].add(technician);
+            }
+        }
+        if (next != null) {
+            start(technician, next);
+        }
+    }
+
+    private void start(AsyncTechnician technician, Pending pair) {
+        technician.assemble().whenCompleteAsync((ignored, error) -> completeAssembly(technician, pair), executor);
+    }
+
+    // Counts the drone, then hands the technician its next pair or parks it in the idle set.
+    private void completeAssembly(AsyncTechnician technician, Pending pair) {
+        int drone;
+        Pending next;
+        boolean finished;
+        synchronized (this) {
+            drone = ++assembledCount;
+            inFlight--;
+            technician.countAssembled();
+            next = queued[pair.missing.ordinal()].poll();
+            if (next == null) {
+                idle[pair.missing.ordinal()].add(technician);
+            }
+            finished = assembledCount >= maxDrones;
+        }
+        AssemblyLog.printf("%s completed drone #%d%n", technician.getName(), drone);
+        pair.drone.complete(drone);
+        if (next != null) {
+            start(technician, next);
+        }
+        if (finished) {
+            done.complete(drone);
+        }
+    }
+
+    /**
+     * Returns a future that completes with the quota once every drone is assembled.
+     *
+     * @return the completion future.
+     */
+    public CompletableFuture<Integer> whenDone() {
+        return done;
+    }
+
+    public synchronized int getAssembledCount() {
+        return assembledCount;
+    }
+
+    /**
+     * Returns the most pairs that were placed but not yet assembled at any one time.
+     *
+     * @return the in-flight high-water mark.
+     */
+    public synchronized int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * A placed pair waiting for, or being assembled by, a technician.
+     */
+    private static final class Pending {
+        final Component missing;
+        final CompletableFuture<Integer> drone = new CompletableFuture<>();
+
+        Pending(Component missing) {
+            this.missing = missing;
+        }
+    }
+}
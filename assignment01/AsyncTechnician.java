@@ -0,0 +1,71 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Callback technician for the AsyncAssemblyMonitor.
+ * It owns no thread: the monitor hands it a pair and it returns a future that
+ * completes once the simulated assembly time has elapsed on a shared executor.
+ */
+public class AsyncTechnician {
+    private final Component myComponent;
+    private final String name;
+    private final Executor executor;
+    private final long maxAssemblyMillis;
+    private volatile Workload.Stream draws = new Workload().newStream();
+    private int assembled;  // only touched by the monitor, under its lock
+
+    /**
+     * Setup the technician.
+     *
+     * @param myComponent       The component the technician supplies.
+     * @param name              Name used in the trace.
+     * @param executor          Runs the completion once the assembly time is up.
+     * @param maxAssemblyMillis Upper bound of the simulated (random) assembly time; 0 is instant.
+     */
+    public AsyncTechnician(Component myComponent, String name, Executor executor, long maxAssemblyMillis) {
+        this.myComponent = myComponent;
+        this.name = name;
+        this.executor = executor;
+        this.maxAssemblyMillis = maxAssemblyMillis;
+    }
+
+    /**
+     * Draws this technician's assembly times from its own stream of a run's workload.
+     *
+     * @param draws This technician's own stream.
+     */
+    public void setDraws(Workload.Stream draws) {
+        this.draws = draws;
+    }
+
+    /**
+     * Starts assembling one drone without blocking the caller.
+     * A technician assembles one pair at a time, so its stream is never drawn from concurrently.
+     *
+     * @return a future completing when the drone is assembled.
+     */
+    public CompletableFuture<Void> assemble() {
+        long millis = maxAssemblyMillis > 0 ? draws.nextLong(maxAssemblyMillis) : 0;
+        Executor delayed = millis > 0
+                ? CompletableFuture.delayedExecutor(millis, TimeUnit.MILLISECONDS, executor)
+                : executor;
+        return CompletableFuture.runAsync(() -> { }, delayed);
+    }
+
+    public Component getComponent() {
+        return myComponent;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    int getAssembled() {
+        return assembled;
+    }
+
+    void countAssembled() {
+        assembled++;
+    }
+}
@@ -1,3 +1,27 @@
 public enum Component {
-    FRAME, PROPULSION, FIRMWARE
+    FRAME, PROPULSION, FIRMWARE;
+
+    /**
+     * Computes the third component not in (comp1, comp2).
+     *
+     * @param comp1 the first component placed on the assembly line by the agent.
+     * @param comp2 the second component placed on the assembly line by the agent.
+     *
+     * @return the missing third component.
+     */
+    public static Component missingFrom(Component comp1, Component comp2) {
+        // (comp1, comp2) are guaranteed distinct and non-null by caller validation.
+        if ((comp1 == FRAME && comp2 == PROPULSION) ||
+            (comp1 == PROPULSION && comp2 == FRAME)) {
+            return FIRMWARE;
+        }
+
+        if ((comp1 == FRAME && comp2 == FIRMWARE) ||
+            (comp1 == FIRMWARE && comp2 == FRAME)) {
+            return PROPULSION;
+        }
+
+        // Remaining valid pair: PROPULSION + FIRMWARE
+        return FRAME;
+    }
 }
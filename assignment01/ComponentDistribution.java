@@ -0,0 +1,102 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Distribution of the component an Agent leaves missing from its next pair.
+ * Implementations are stateless: the caller's generator supplies the randomness and
+ * the draw index the position, so one distribution can serve any number of threads.
+ */
+public interface ComponentDistribution {
+
+    /**
+     * Draws the next missing component.
+     *
+     * @param random The calling stream's own generator.
+     * @param index  How many draws this stream made before (0 for the first).
+     * @return the missing component.
+     */
+    Component draw(SplittableRandom random, long index);
+
+    /**
+     * Every component equally likely, as in the original assignment.
+     *
+     * @return the uniform distribution.
+     */
+    static ComponentDistribution uniform() {
+        Component[] components = Component.values();
+        return (random, index) -> components[random.nextInt(components.length)];
+    }
+
+    /**
+     * One component is left missing with probability {@code p}, the others share the rest.
+     *
+     * @param favourite The component to skew towards.
+     * @param p         Its probability, in [0, 1].
+     * @return the skewed distribution.
+     */
+    static ComponentDistribution skewed(Component favourite, double p) {
+        if (p < 0 || p > 1) {
+            throw new IllegalArgumentException("p must be in [0, 1]");
+        }
+        Component[] components = Component.values();
+        Component[] others = new Component[components.length - 1];
+        int n = 0;
+        for (Component c : components) {
+            if (c != favourite) others[n++] = c;
+        }
+        return (random, index) -> random.nextDouble() < p ? favourite : others[random.nextInt(others.length)];
+    }
+
+    /**
+     * Replays a recorded sequence, wrapping around when it runs out.
+     *
+     * @param sequence The recorded missing components, in order.
+     * @return the replaying distribution.
+     */
+    static ComponentDistribution replay(List<Component> sequence) {
+        if (sequence.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to replay");
+        }
+        Component[] recorded = sequence.toArray(new Component[0]);
+        return (random, index) -> recorded[(int) (index % recorded.length)];
+    }
+
+    /**
+     * Parses {@code uniform}, {@code skewed:COMPONENT:P} or {@code replay:FILE}.
+     * A replay file holds one component name per line, as written by {@link Workload#writeRecording}.
+     *
+     * @param spec The distribution spec.
+     * @return the distribution.
+     * @throws IOException if a replay file cannot be read.
+     */
+    static ComponentDistribution parse(String spec) throws IOException {
+        String[] parts = spec.split(":", 3);
+        switch (parts[0]) {
+            case "uniform":
+                return uniform();
+            case "skewed":
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Expected skewed:COMPONENT:P, got " + spec);
+                }
+                return skewed(Component.valueOf(parts[1].toUpperCase()), Double.parseDouble(parts[2]));
+            case "replay":
+                if (parts.length < 2) {
+                    throw new IllegalArgumentException("Expected replay:FILE, got " + spec);
+                }
+                List<Component> sequence = new ArrayList<>();
+                for (String line : Files.readAllLines(Path.of(spec.substring("replay:".length())))) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        sequence.add(Component.valueOf(line));
+                    }
+                }
+                return replay(sequence);
+            default:
+                throw new IllegalArgumentException("Unknown workload: " + spec);
+        }
+    }
+}
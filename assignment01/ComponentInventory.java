@@ -0,0 +1,193 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded per-Component stock feeding the Agent.
+ * Each bin is a CAS counter on its own cache line, so taking and restocking never
+ * share a lock with each other or with the station. Only an agent that finds no
+ * usable pair in stock waits, on a private monitor the {@link Replenisher} signals
+ * when (and only when) someone is starved.
+ * <p>
+ * Every pair acquisition records its stock wait on the simulation clock, so the
+ * queueing delay caused by supply shows up separately from the handoff itself.
+ */
+public class ComponentInventory {
+
+    // 16 ints = 64 bytes between bins so neighbouring counters never share a cache line.
+    private static final int PAD = 16;
+    private static final Component[] COMPONENTS = Component.values();
+
+    private final AtomicIntegerArray stock = new AtomicIntegerArray(COMPONENTS.length * PAD);
+    private final int capacity;
+    private final SimulationClock clock;
+
+    private final Object restocked = new Object();
+    private final AtomicInteger starved = new AtomicInteger();
+
+    private final LatencyHistogram stockWait = new LatencyHistogram();
+    private final AtomicLong stockouts = new AtomicLong();
+    private final AtomicLong switches = new AtomicLong();
+    private final AtomicLongArray produced = new AtomicLongArray(COMPONENTS.length);
+
+    /**
+     * Setup the inventory with every bin full.
+     *
+     * @param capacity Units each bin holds.
+     * @param clock    Clock the stock waits are measured on; waits and wake-ups go through it.
+     */
+    public ComponentInventory(int capacity, SimulationClock clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.capacity = capacity;
+        this.clock = clock;
+        for (Component c : COMPONENTS) {
+            stock.set(c.ordinal() * PAD, capacity);
+        }
+    }
+
+    /**
+     * Takes the pair that leaves out {@code preferred}, blocking while it is out of stock.
+     * With {@code allowSwitch} the agent takes any other pair in stock instead of waiting.
+     *
+     * @param preferred   The missing component of the pair the agent wants to place.
+     * @param allowSwitch Whether another pair may be taken when the preferred one is short.
+     * @return the missing component of the pair actually taken.
+     * @throws InterruptedException if interrupted while waiting for stock.
+     */
+    public Component takePair(Component preferred, boolean allowSwitch) throws InterruptedException {
+        long start = clock.nanoTime();
+        Component taken = tryTakePair(preferred, allowSwitch);
+        if (taken == null) {
+            stockouts.incrementAndGet();
+            starved.incrementAndGet();
+            try {
+                synchronized (restocked) {
+                    while ((taken = tryTakePair(preferred, allowSwitch)) == null) {
+                        clock.waitOn(restocked);
+                    }
+                }
+            } finally {
+                starved.decrementAndGet();
+            }
+        }
+        if (taken != preferred) {
+            switches.incrementAndGet();
+        }
+        stockWait.record(clock.nanoTime() - start);
+        return taken;
+    }
+
+    /**
+     * Adds up to {@code units} of a component, never beyond capacity.
+     *
+     * @param component The component to restock.
+     * @param units     Units produced.
+     * @return the units actually stored (0 when the bin is full).
+     */
+    public int restock(Component component, int units) {
+        int idx = component.ordinal() * PAD;
+        int added;
+        while (true) {
+            int have = stock.get(idx);
+            added = Math.min(units, capacity - have);
+            if (added <= 0) return 0;
+            if (stock.compareAndSet(idx, have, have + added)) break;
+        }
+        produced.addAndGet(component.ordinal(), added);
+        // starved is raised before a starved agent re-checks stock, so either it sees
+        // this unit or we see it and wake it; the monitor is skipped when nobody waits.
+        if (starved.get() > 0) {
+            synchronized (restocked) {
+                clock.notifyAllOn(restocked);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Returns the units of a component currently in stock.
+     *
+     * @param component The component.
+     * @return the bin's stock level.
+     */
+    public int available(Component component) {
+        return stock.get(component.ordinal() * PAD);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the distribution of time the agent waited for stock per pair.
+     *
+     * @return the live histogram, in clock nanoseconds.
+     */
+    public LatencyHistogram getStockWait() {
+        return stockWait;
+    }
+
+    /**
+     * Returns how many pair acquisitions found nothing usable in stock.
+     *
+     * @return the stockout count.
+     */
+    public long getStockouts() {
+        return stockouts.get();
+    }
+
+    /**
+     * Returns how many times the agent placed a different pair than it wanted.
+     *
+     * @return the switch count.
+     */
+    public long getSwitches() {
+        return switches.get();
+    }
+
+    /**
+     * Returns the units of a component the replenisher has stored so far.
+     *
+     * @param component The component.
+     * @return the units produced.
+     */
+    public long getProduced(Component component) {
+        return produced.get(component.ordinal());
+    }
+
+    private Component tryTakePair(Component preferred, boolean allowSwitch) {
+        if (tryTakePairMissing(preferred)) return preferred;
+        if (!allowSwitch) return null;
+        for (Component c : COMPONENTS) {
+            if (c != preferred && tryTakePairMissing(c)) return c;
+        }
+        return null;
+    }
+
+    // Takes the two components other than missing, or neither.
+    private boolean tryTakePairMissing(Component missing) {
+        int first = ((missing.ordinal() + 1) % COMPONENTS.length) * PAD;
+        int second = ((missing.ordinal() + 2) % COMPONENTS.length) * PAD;
+        if (!tryDecrement(first)) return false;
+        if (!tryDecrement(second)) {
+            // Put it back: a pair is all or nothing. The unit was already counted, so this
+            // may briefly push the bin one over capacity if it was restocked meanwhile.
+            stock.incrementAndGet(first);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean tryDecrement(int idx) {
+        int have;
+        while ((have = stock.get(idx)) > 0) {
+            if (stock.compareAndSet(idx, have, have - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
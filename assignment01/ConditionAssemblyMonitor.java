@@ -0,0 +1,248 @@
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Explicit-lock variant of the AssemblyMonitor.
+ * Each Component gets its own Condition (plus one for the agent), so a handoff
+ * signals only a technician that can actually take the pair instead of waking
+ * every waiter with notifyAll().
+ */
+public class ConditionAssemblyMonitor implements AssemblyStation {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition tableFree = lock.newCondition();
+    private final Map<Component, Condition> turns = new EnumMap<>(Component.class);
+
+    private Component c1, c2, missing;
+    private boolean tableOccupied;
+    private boolean claimed;
+    private boolean closed;
+    private int assembledCount;
+    private HandoffProbe probe = HandoffProbe.DISABLED;
+    private SimulationClock clock = RealTimeClock.INSTANCE;
+    private final int[] waiting = new int[Component.values().length];
+    private long placedAt, lastCompletedAt;
+    private final int maxDrones;
+
+    /**
+     * Setup the Assembly Monitor.
+     *
+     * @param maxDrones The maximum number of drones to be assembled before termination.
+     */
+    public ConditionAssemblyMonitor(int maxDrones) {
+        if (maxDrones <= 0) {
+            throw new IllegalArgumentException("maxDrones must be > 0");
+        }
+        this.maxDrones = maxDrones;
+        for (Component c : Component.values()) {
+            turns.put(c, lock.newCondition());
+        }
+    }
+
+    /**
+     * Agent places 2 random and distinct components on the table, signals the one
+     * technician queue that owns the missing component, then waits until the table
+     * is cleared (assembly completed) or quota reached.
+     *
+     * @param comp1 The first random component placed on the belt by the agent.
+     * @param comp2 The second random, but distinct component, placed on the belt by the agent.
+     */
+    @Override
+    public void placeComponents(Component comp1, Component comp2) {
+        lock.lock();
+        try {
+            // Wait until table is free (unless we are done).
+            while (!isDoneLocked() && tableOccupied) {
+                clock.await(tableFree);
+            }
+            if (isDoneLocked()) return;
+
+            // Defensive validation to maintain invariants.
+            if (comp1 == null || comp2 == null || comp1 == comp2) {
+                throw new IllegalArgumentException("Agent must place two distinct non-null components.");
+            }
+
+            this.c1 = comp1;
+            this.c2 = comp2;
+            this.missing = Component.missingFrom(comp1, comp2);
+            this.tableOccupied = true;
+            this.claimed = false;
+            this.placedAt = probe.now();
+            probe.placed(missing, placedAt, lastCompletedAt);
+
+            AssemblyLog.printf("%s placed: %s + %s (missing %s)%n",
+                    Thread.currentThread().getName(), comp1, comp2, missing);
+
+            // Wake exactly one technician owning the missing component.
+            clock.signal(turns.get(missing));
+
+            // Wait until a technician clears the table, or system completes.
+            while (!isDoneLocked() && tableOccupied) {
+                clock.await(tableFree);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // clean exit if interrupted
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Technician waits on its own component queue until the table holds a pair that
+     * is missing their component and no other technician has claimed it.
+     *
+     * @param myComponent The missing component to be matched to the Technicians.
+     *
+     * @return true if technician should proceed with assembly, false if done (terminate).
+     */
+    @Override
+    public boolean waitForTurn(Component myComponent) {
+        Condition myTurn = turns.get(myComponent);
+        lock.lock();
+        try {
+            while (!isDoneLocked() && (!tableOccupied || claimed || missing != myComponent)) {
+                waiting[myComponent.ordinal()]++;
+                try {
+                    clock.await(myTurn);
+                } finally {
+                    waiting[myComponent.ordinal()]--;
+                }
+            }
+            if (isDoneLocked()) return false;
+            claimed = true;
+            probe.claimed(missing, placedAt);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false; // terminate cleanly if interrupted
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Technician calls this after assembling (outside the lock).
+     * Clears the table, increments the count, and signals the agent.
+     */
+    @Override
+    public void completeAssembly() {
+        lock.lock();
+        try {
+            if (isDoneLocked()) {
+                wakeAll();
+                return;
+            }
+
+            assembledCount++;
+            tableOccupied = false;
+            claimed = false;
+            c1 = c2 = null;
+            lastCompletedAt = probe.completed();
+
+            AssemblyLog.printf("%s completed drone #%d%n",
+                    Thread.currentThread().getName(), assembledCount);
+
+            if (isDoneLocked()) {
+                // Release every waiter so all threads can exit.
+                wakeAll();
+            } else {
+                clock.signal(tableFree);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getIdleTechnicians(Component component) {
+        lock.lock();
+        try {
+            return waiting[component.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void setProbe(HandoffProbe probe) {
+        lock.lock();
+        try {
+            this.probe = probe;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void setClock(SimulationClock clock) {
+        lock.lock();
+        try {
+            this.clock = clock;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting pairs; waiters are released once the table is clear.
+     */
+    @Override
+    public void shutdown() {
+        lock.lock();
+        try {
+            closed = true;
+            wakeAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isDone() {
+        lock.lock();
+        try {
+            return isDoneLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getAssembledCount() {
+        lock.lock();
+        try {
+            return assembledCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Relays the missing component.
+     *
+     * @return the missing component.
+     */
+    public Component getMissing() {
+        lock.lock();
+        try {
+            return missing;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller must hold the lock.
+    private boolean isDoneLocked() {
+        return assembledCount >= maxDrones || (closed && !tableOccupied);
+    }
+
+    // Caller must hold the lock.
+    private void wakeAll() {
+        clock.signalAll(tableFree);
+        for (Condition c : turns.values()) {
+            clock.signalAll(c);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 public class ControlFirmwareTechnician extends Technician {
-    public ControlFirmwareTechnician(AssemblyMonitor monitor) {
+    public ControlFirmwareTechnician(AssemblyStation monitor) {
         super(monitor, Component.FIRMWARE);
     }
 }
@@ -1,39 +1,397 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.IntFunction;
+
 /**
- * Driver program: runs the system until 20 drones are assembled.
+ * Driver program: runs the system until the drone quota ({@code --drones=N}, default 20) is assembled.
+ * Options:
+ * <ul>
+ *   <li>{@code --backend=intrinsic|conditions|lockfree|handoff|ring} pick the AssemblyStation
+ *       implementation (default intrinsic; conditions with {@code --virtual}; ring uses {@code --slots}, default 4).</li>
+ *   <li>{@code --conditions} / {@code --lockfree} shorthand for the matching {@code --backend}.</li>
+ *   <li>{@code --spin} spin, then yield, before blocking (intrinsic and lock-free monitors; see {@link AdaptiveSpin}).</li>
+ *   <li>{@code --slots=N} use an N-slot ring buffer table so the agent can stage pairs ahead
+ *       (implies {@code --backend=ring}; rejected with any other backend).</li>
+ *   <li>{@code --technicians=N|auto} run N technicians per component ({@code auto}: one per core).</li>
+ *   <li>{@code --policy=random|load-aware} how the agent picks pairs (see {@link PlacementPolicy}).</li>
+ *   <li>{@code --inventory=N} draw pairs from bins of N units per component (default: infinite supply).</li>
+ *   <li>{@code --restock-ms=N} / {@code --restock-batch=N} replenishment interval and units per
+ *       component (default 300 / 1).</li>
+ *   <li>{@code --stockout=block|switch} on a stockout, wait for the wanted pair or place another.</li>
+ *   <li>{@code --fairness} report per-technician service counts, waits and starvation events (intrinsic only).</li>
+ *   <li>{@code --fair} also serve the oldest eligible waiter first (see {@link FairnessTracker}).</li>
+ *   <li>{@code --starvation=K} passed over K times counts as starvation (default 3).</li>
+ *   <li>{@code --pipeline[=NAME:MAX_MS[:WORKERS],...]} finish drones in separate stages behind the
+ *       technicians (default {@value AssemblyPipeline#DEFAULT_STAGES}; see {@link AssemblyPipeline}).</li>
+ *   <li>{@code --queue=N} capacity of the queue in front of every pipeline stage (default 4).</li>
+ *   <li>{@code --journal=FILE} append every placement and completion to a memory-mapped journal
+ *       (intrinsic monitor only; read it back with {@link JournalReader}).</li>
+ *   <li>{@code --journal-flush-ms=N} interval of the journal's background force() (default 50).</li>
+ *   <li>{@code --steal} let idle technicians take pairs from busy pools (ring buffer table on a single line only).</li>
+ *   <li>{@code --virtual=N} run N independent lines on virtual threads (see {@link VirtualLineRunner}).</li>
+ *   <li>{@code --assembly-ms=N} upper bound of the simulated assembly time (default 500; with
+ *       {@code --pipeline} the technician's fit at the table, default {@value AssemblyPipeline#DEFAULT_FIT_MS}).</li>
+ *   <li>{@code --drones=N} quota (default 20).</li>
+ *   <li>{@code --virtual-time} run assembly time on a discrete-event {@link VirtualClock} (not with the handoff backend).</li>
+ *   <li>{@code --seed=N} seed every agent and technician stream, for repeatable runs (see {@link Workload}).</li>
+ *   <li>{@code --workload=uniform|skewed:COMPONENT:P|replay:FILE} distribution of the missing component.</li>
+ *   <li>{@code --record=FILE} write the agent's draws to FILE, for {@code --workload=replay:FILE}.</li>
+ *   <li>{@code --quiet} suppress the per-handoff trace.</li>
+ *   <li>{@code --histograms} record per-phase handoff latency and print percentiles at the end.</li>
+ * </ul>
  */
 public class DroneAssemblyLine {
     public static final int MAX_DRONES = 20;
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         System.out.println("=== Autonomous Drone Assembly Line (Cigarette Smokers Variant) ===");
-        System.out.println("Max drones: " + MAX_DRONES);
+        String backend = null;
+        int slots = 0;
+        int poolSize = 1;
+        boolean workStealing = false;
+        int virtualLines = 0;
+        Long assemblyMillis = null;
+        boolean histograms = false;
+        int maxDrones = MAX_DRONES;
+        boolean virtualTime = false;
+        PlacementPolicy policy = PlacementPolicy.RANDOM;
+        AdaptiveSpin spin = AdaptiveSpin.DISABLED;
+        boolean fairness = false;
+        boolean fair = false;
+        int starvationThreshold = 3;
+        Long seed = null;
+        ComponentDistribution distribution = null;
+        String recordFile = null;
+        int inventoryCapacity = 0;
+        long restockMillis = 300;
+        int restockBatch = 1;
+        boolean switchOnStockout = false;
+        String pipelineSpec = null;
+        int queueCapacity = 4;
+        String journalFile = null;
+        long journalFlushMillis = 50;
+        for (String arg : args) {
+            if (arg.startsWith("--backend=")) {
+                backend = arg.substring("--backend=".length());
+            } else if ("--conditions".equals(arg)) {
+                backend = "conditions";
+            } else if ("--lockfree".equals(arg)) {
+                backend = "lockfree";
+            } else if ("--spin".equals(arg)) {
+                spin = new AdaptiveSpin();
+            } else if (arg.startsWith("--slots=")) {
+                slots = Integer.parseInt(arg.substring("--slots=".length()));
+            } else if (arg.startsWith("--technicians=")) {
+                String value = arg.substring("--technicians=".length());
+                poolSize = "auto".equals(value)
+                        ? Math.max(1, Runtime.getRuntime().availableProcessors() / Component.values().length)
+                        : Integer.parseInt(value);
+            } else if (arg.startsWith("--policy=")) {
+                policy = PlacementPolicy.parse(arg.substring("--policy=".length()));
+            } else if (arg.startsWith("--inventory=")) {
+                inventoryCapacity = Integer.parseInt(arg.substring("--inventory=".length()));
+            } else if (arg.startsWith("--restock-ms=")) {
+                restockMillis = Long.parseLong(arg.substring("--restock-ms=".length()));
+            } else if (arg.startsWith("--restock-batch=")) {
+                restockBatch = Integer.parseInt(arg.substring("--restock-batch=".length()));
+            } else if (arg.startsWith("--stockout=")) {
+                String value = arg.substring("--stockout=".length());
+                if (!"block".equals(value) && !"switch".equals(value)) {
+                    throw new IllegalArgumentException("Unknown stockout mode: " + value);
+                }
+                switchOnStockout = "switch".equals(value);
+            } else if ("--fairness".equals(arg)) {
+                fairness = true;
+            } else if ("--fair".equals(arg)) {
+                fairness = true;
+                fair = true;
+            } else if (arg.startsWith("--starvation=")) {
+                starvationThreshold = Integer.parseInt(arg.substring("--starvation=".length()));
+            } else if ("--pipeline".equals(arg)) {
+                pipelineSpec = AssemblyPipeline.DEFAULT_STAGES;
+            } else if (arg.startsWith("--pipeline=")) {
+                pipelineSpec = arg.substring("--pipeline=".length());
+            } else if (arg.startsWith("--queue=")) {
+                queueCapacity = Integer.parseInt(arg.substring("--queue=".length()));
+            } else if (arg.startsWith("--journal=")) {
+                journalFile = arg.substring("--journal=".length());
+            } else if (arg.startsWith("--journal-flush-ms=")) {
+                journalFlushMillis = Long.parseLong(arg.substring("--journal-flush-ms=".length()));
+            } else if ("--steal".equals(arg)) {
+                workStealing = true;
+            } else if (arg.startsWith("--virtual=")) {
+                virtualLines = Integer.parseInt(arg.substring("--virtual=".length()));
+            } else if (arg.startsWith("--drones=")) {
+                maxDrones = Integer.parseInt(arg.substring("--drones=".length()));
+            } else if ("--virtual-time".equals(arg)) {
+                virtualTime = true;
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.startsWith("--workload=")) {
+                distribution = ComponentDistribution.parse(arg.substring("--workload=".length()));
+            } else if (arg.startsWith("--record=")) {
+                recordFile = arg.substring("--record=".length());
+            } else if ("--quiet".equals(arg)) {
+                AssemblyLog.setEnabled(false);
+            } else if ("--histograms".equals(arg)) {
+                histograms = true;
+            } else if (arg.startsWith("--assembly-ms=")) {
+                assemblyMillis = Long.parseLong(arg.substring("--assembly-ms=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        Workload workload = Workload.fromOptions(seed, distribution);
+        if (recordFile != null) {
+            workload.startRecording();
+        }
+        if (slots > 0 && backend != null && !"ring".equals(backend)) {
+            throw new IllegalArgumentException("--slots is supported by the ring buffer table only, not --backend=" + backend);
+        }
+        if (slots > 0 && backend == null) {
+            backend = "ring";
+        }
+        if ("ring".equals(backend) && slots == 0) {
+            slots = 4;
+        }
+        if (backend == null) {
+            // synchronized/wait() pins virtual threads to their carrier, so default to a park-based monitor.
+            backend = virtualLines > 0 ? "conditions" : "intrinsic";
+        }
+        if (fairness && (!"intrinsic".equals(backend) || virtualLines > 0)) {
+            throw new IllegalArgumentException("--fairness/--fair are supported by the intrinsic monitor on a single line only");
+        }
+        if (journalFile != null && (!"intrinsic".equals(backend) || virtualLines > 0)) {
+            throw new IllegalArgumentException("--journal is supported by the intrinsic monitor on a single line only");
+        }
+        if (workStealing && (!"ring".equals(backend) || virtualLines > 0)) {
+            throw new IllegalArgumentException("--steal is supported by the ring buffer table (--slots) on a single line only");
+        }
+        if (virtualTime && "handoff".equals(backend)) {
+            throw new IllegalArgumentException("--virtual-time is not supported by the handoff monitor (its SynchronousQueue waits bypass the clock)");
+        }
+        if (pipelineSpec != null && virtualLines > 0) {
+            throw new IllegalArgumentException("--pipeline runs on a single line only");
+        }
+        if (assemblyMillis == null) {
+            // The stages do the assembly; the technician only fits its component at the table.
+            assemblyMillis = pipelineSpec != null ? AssemblyPipeline.DEFAULT_FIT_MS : 500;
+        }
+        IntFunction<AssemblyStation> stations = stationFactory(backend, slots, spin);
+        String monitorName = describe(backend, slots) + (spin != AdaptiveSpin.DISABLED ? ", adaptive spin" : "");
+
+        if (virtualLines > 0) {
+            System.out.println("Monitor: " + monitorName);
+            VirtualLineRunner.run(virtualLines, maxDrones, stations, isPinning(backend), poolSize, assemblyMillis, workload);
+            return;
+        }
+
+        AssemblyStation monitor = stations.apply(maxDrones);
+        HandoffProbe probe = histograms ? new HandoffProbe() : HandoffProbe.DISABLED;
+        monitor.setProbe(probe);
+
+        System.out.println("Max drones: " + maxDrones);
+        System.out.println("Monitor: " + monitorName);
+        System.out.println("Technicians per component: " + poolSize + (workStealing ? " (work stealing)" : ""));
+        System.out.println("Placement policy: " + policy + ", workload " + workload.describeSeed());
+        if (inventoryCapacity > 0) {
+            System.out.println("Inventory: " + inventoryCapacity + " per component, +" + restockBatch
+                    + " every " + restockMillis + " ms, " + (switchOnStockout ? "switch" : "block") + " on stockout");
+        }
+        if (pipelineSpec != null) {
+            System.out.println("Pipeline: " + pipelineSpec + ", queues of " + queueCapacity
+                    + ", fit at the table up to " + assemblyMillis + " ms");
+        }
+        System.out.println("Clock: " + (virtualTime ? "virtual (discrete-event)" : "real time"));
         System.out.println();
 
-        AssemblyMonitor monitor = new AssemblyMonitor(MAX_DRONES);
+        VirtualClock virtualClock = virtualTime ? new VirtualClock() : null;
+        SimulationClock clock = virtualTime ? virtualClock : RealTimeClock.INSTANCE;
+        monitor.setClock(clock);
+        FairnessTracker tracker = FairnessTracker.DISABLED;
+        if (fairness) {
+            tracker = new FairnessTracker(fair, clock, starvationThreshold);
+            ((AssemblyMonitor) monitor).setFairness(tracker);
+        }
+        AssemblyJournal journal = AssemblyJournal.DISABLED;
+        if (journalFile != null) {
+            journal = new AssemblyJournal(Path.of(journalFile), clock, journalFlushMillis);
+            ((AssemblyMonitor) monitor).setJournal(journal);
+        }
+        ThreadFactory threads = virtualTime ? virtualClock.participants(Thread::new) : Thread::new;
+
+        Agent agent = new Agent(monitor);
+        agent.setPolicy(policy);
+        agent.setWorkload(workload);
+        Thread agentThread = threads.newThread(agent);
+        agentThread.setName("Agent");
 
-        Thread agentThread = new Thread(new Agent(monitor), "Agent");
+        ComponentInventory inventory = null;
+        Replenisher replenisher = null;
+        Thread replenisherThread = null;
+        if (inventoryCapacity > 0) {
+            inventory = new ComponentInventory(inventoryCapacity, clock);
+            agent.setInventory(inventory, switchOnStockout);
+            replenisher = new Replenisher(inventory, monitor, clock, restockMillis, restockBatch);
+            replenisherThread = threads.newThread(replenisher);
+            replenisherThread.setName("Replenisher");
+        }
 
-        Thread frameThread = new Thread(new FrameTechnician(monitor), "FrameTechnician");
-        Thread propulsionThread = new Thread(new PropulsionTechnician(monitor), "PropulsionTechnician");
-        Thread firmwareThread = new Thread(new ControlFirmwareTechnician(monitor), "ControlFirmwareTechnician");
+        TechnicianPool[] pools = new TechnicianPool[Component.values().length];
+        for (Component c : Component.values()) {
+            pools[c.ordinal()] = new TechnicianPool(monitor, c, poolSize, workStealing, "", threads);
+            pools[c.ordinal()].setMaxAssemblyMillis(assemblyMillis);
+            pools[c.ordinal()].setClock(clock);
+            pools[c.ordinal()].setWorkload(workload);
+        }
+        AssemblyPipeline pipeline = null;
+        if (pipelineSpec != null) {
+            pipeline = new AssemblyPipeline(pipelineSpec, queueCapacity, clock, workload, threads);
+            for (TechnicianPool pool : pools) {
+                pool.setPipeline(pipeline);
+            }
+        }
+        if (virtualTime) {
+            virtualClock.start();
+        }
+        long start = System.nanoTime();
+        long clockStart = clock.nanoTime();
 
         // Start technicians first (optional). Either order is fine because state-based guards prevent lost signals.
-        frameThread.start();
-        propulsionThread.start();
-        firmwareThread.start();
+        if (pipeline != null) {
+            pipeline.start();
+        }
+        for (TechnicianPool pool : pools) {
+            pool.start();
+        }
+        if (replenisherThread != null) {
+            replenisherThread.start();
+        }
         agentThread.start();
 
         // Wait for threads to finish
         try {
             agentThread.join();
-            frameThread.join();
-            propulsionThread.join();
-            firmwareThread.join();
+            if (replenisherThread != null) {
+                replenisherThread.join();
+            }
+            for (TechnicianPool pool : pools) {
+                pool.join();
+            }
+            if (pipeline != null) {
+                pipeline.close();
+                pipeline.join();
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
+        double realSeconds = (System.nanoTime() - start) / 1e9;
+        long clockElapsed = Math.max(1, clock.nanoTime() - clockStart);
+        if (virtualTime) {
+            virtualClock.stop();
+        }
+
+        journal.close();
+        if (recordFile != null) {
+            workload.writeRecording(Path.of(recordFile));
+        }
 
         System.out.println();
+        for (TechnicianPool pool : pools) {
+            System.out.printf("%-10s pool x%d: %d assembled (%d stolen), idle %.1f%%%n",
+                    pool.getComponent(), pool.size(), pool.getAssembledCount(), pool.getStolenCount(),
+                    100.0 * pool.getIdleNanos() / ((double) clockElapsed * pool.size()));
+        }
+        if (pipeline != null) {
+            System.out.println();
+            // Single-slot tables hold one pair at a time; the ring holds one per slot.
+            int technicians = 0;
+            long tableNanos = 0;
+            int handedOff = 0;
+            for (TechnicianPool pool : pools) {
+                technicians += pool.size();
+                tableNanos += pool.getAssemblyNanos();
+                handedOff += pool.getAssembledCount();
+            }
+            int tablePairs = Math.min(technicians, "ring".equals(backend) ? slots : 1);
+            pipeline.report(System.out, clockElapsed, tablePairs, tableNanos, handedOff);
+            System.out.println();
+        }
+        if (inventory != null) {
+            LatencyHistogram wait = inventory.getStockWait();
+            System.out.printf("Inventory: %d stockouts, %d switched pairs, %d units refused by full bins%n",
+                    inventory.getStockouts(), inventory.getSwitches(), replenisher.getDiscarded());
+            System.out.printf("Stock wait per pair (ms): p50 %.1f, p99 %.1f, max %.1f%n",
+                    wait.percentile(0.50) / 1e6, wait.percentile(0.99) / 1e6, wait.percentile(1.0) / 1e6);
+        }
+        journal.report(System.out);
+        if (spin != AdaptiveSpin.DISABLED) {
+            System.out.println("Waits: " + spin.summary());
+        }
+        if (fairness) {
+            System.out.println();
+            System.out.println("Fairness (" + (fair ? "oldest waiter first" : "JVM wake-up order") + "):");
+            tracker.report(System.out);
+        }
+        if (histograms) {
+            System.out.println();
+            probe.report(System.out);
+        }
+        if (virtualTime) {
+            double simSeconds = virtualClock.nanoTime() / 1e9;
+            System.out.printf("Simulated: %.1f s (%.2f drones/s simulated), %d clock advances%n",
+                    simSeconds, monitor.getAssembledCount() / simSeconds, virtualClock.getAdvances());
+        }
+        System.out.printf("Real time: %.2f s (%.1f drones/s)%n", realSeconds, monitor.getAssembledCount() / realSeconds);
         System.out.println("=== All " + monitor.getAssembledCount() + " drones assembled. System terminated. ===");
     }
+
+    /**
+     * Maps a backend name to a station constructor taking the drone quota.
+     *
+     * @param backend One of intrinsic, conditions, lockfree, handoff, ring.
+     * @param slots   Slot count for the ring backend.
+     * @param spin    Spin phase for the intrinsic and lockfree backends, or AdaptiveSpin.DISABLED.
+     * @return the station factory.
+     */
+    static IntFunction<AssemblyStation> stationFactory(String backend, int slots, AdaptiveSpin spin) {
+        if (spin != AdaptiveSpin.DISABLED && !"intrinsic".equals(backend) && !"lockfree".equals(backend)) {
+            throw new IllegalArgumentException("--spin is supported by the intrinsic and lock-free monitors only");
+        }
+        switch (backend) {
+            case "intrinsic":
+                return maxDrones -> new AssemblyMonitor(maxDrones, spin);
+            case "conditions":
+                return ConditionAssemblyMonitor::new;
+            case "lockfree":
+                return maxDrones -> new LockFreeAssemblyMonitor(maxDrones, spin);
+            case "handoff":
+                return HandoffAssemblyMonitor::new;
+            case "ring":
+                return maxDrones -> new RingBufferAssemblyMonitor(maxDrones, slots);
+            default:
+                throw new IllegalArgumentException("Unknown backend: " + backend);
+        }
+    }
+
+    private static String describe(String backend, int slots) {
+        switch (backend) {
+            case "conditions":
+                return "ReentrantLock + Conditions";
+            case "lockfree":
+                return "lock-free (CAS + park/unpark)";
+            case "handoff":
+                return "SynchronousQueue handoff";
+            case "ring":
+                return slots + "-slot ring buffer";
+            default:
+                return "intrinsic";
+        }
+    }
+
+    // Backends that block in Object.wait(), which pins a virtual thread to its carrier.
+    private static boolean isPinning(String backend) {
+        return "intrinsic".equals(backend) || "ring".equals(backend);
+    }
 }
@@ -0,0 +1,76 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Global drone quota shared by several assembly lines.
+ * The target is split into per-line stripes, each on its own cache line, so lines
+ * reserve drones from their home stripe without contending with each other. A line
+ * whose stripe runs dry takes the remainder from the other stripes, so exactly
+ * {@code target} drones are handed out no matter how uneven the lines are.
+ */
+public class DroneQuota {
+
+    // 8 longs = 64 bytes between stripes so neighbouring lines never share a cache line.
+    private static final int PAD = 8;
+
+    private final AtomicLongArray stripes;
+    private final int stripeCount;
+    private final long target;
+
+    /**
+     * Setup the quota.
+     *
+     * @param target      Total number of drones to hand out across all lines.
+     * @param stripeCount Number of stripes (normally one per line).
+     */
+    public DroneQuota(long target, int stripeCount) {
+        if (target <= 0) {
+            throw new IllegalArgumentException("target must be > 0");
+        }
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripeCount must be > 0");
+        }
+        this.target = target;
+        this.stripeCount = stripeCount;
+        this.stripes = new AtomicLongArray(stripeCount * PAD);
+        for (int i = 0; i < stripeCount; i++) {
+            long share = target / stripeCount + (i < target % stripeCount ? 1 : 0);
+            stripes.set(i * PAD, share);
+        }
+    }
+
+    /**
+     * Reserves one drone, from the home stripe first and otherwise from any other.
+     *
+     * @param home The caller's home stripe (its line index).
+     * @return true if a drone was reserved, false once the global quota is exhausted.
+     */
+    public boolean tryAcquire(int home) {
+        for (int i = 0; i < stripeCount; i++) {
+            int idx = ((home + i) % stripeCount) * PAD;
+            long left;
+            while ((left = stripes.get(idx)) > 0) {
+                if (stripes.compareAndSet(idx, left, left - 1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the drones not yet reserved. Only exact when no line is reserving.
+     *
+     * @return The remaining unreserved drones.
+     */
+    public long remaining() {
+        long sum = 0;
+        for (int i = 0; i < stripeCount; i++) {
+            sum += stripes.get(i * PAD);
+        }
+        return sum;
+    }
+
+    public long getTarget() {
+        return target;
+    }
+}
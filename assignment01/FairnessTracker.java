@@ -0,0 +1,172 @@
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-technician fairness bookkeeping for a station, optionally enforcing
+ * oldest-waiter-first among the technicians eligible for a pair.
+ * <p>
+ * Every technician waiting for its component is queued in arrival order. When one
+ * claims a pair, each technician queued ahead of it was <em>passed over</em>; a wait
+ * that ends after being passed over {@code starvationThreshold} times or more counts as
+ * one starvation event. In fair mode only the head of the queue may claim, so nobody
+ * is ever passed over and the wait of each technician is bounded by the ones ahead.
+ * <p>
+ * Not thread-safe: every method must be called while holding the station's lock.
+ */
+public class FairnessTracker {
+
+    /** Tracks nothing and never restricts who may claim. */
+    public static final FairnessTracker DISABLED = new FairnessTracker(false, RealTimeClock.INSTANCE, 0, false);
+
+    private final boolean enabled;
+    private final boolean fair;
+    private final SimulationClock clock;
+    private final int starvationThreshold;
+    private final Map<Component, ArrayDeque<Waiter>> queues = new LinkedHashMap<>();
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+    /**
+     * Setup the tracker.
+     *
+     * @param fair                true for oldest-waiter-first, false to only measure.
+     * @param clock               Clock the waits are measured on.
+     * @param starvationThreshold Times a waiter may be passed over before its wait counts as starvation.
+     */
+    public FairnessTracker(boolean fair, SimulationClock clock, int starvationThreshold) {
+        this(true, clock, starvationThreshold, fair);
+    }
+
+    private FairnessTracker(boolean enabled, SimulationClock clock, int starvationThreshold, boolean fair) {
+        this.enabled = enabled;
+        this.fair = fair;
+        this.clock = clock;
+        this.starvationThreshold = starvationThreshold;
+        for (Component c : Component.values()) {
+            queues.put(c, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Queues the calling technician as waiting for its component.
+     *
+     * @param component The technician's component.
+     * @return its waiter record, or null when disabled.
+     */
+    public Waiter arrive(Component component) {
+        if (!enabled) return null;
+        Waiter w = new Waiter(component, Thread.currentThread().getName(), clock.nanoTime());
+        queues.get(component).add(w);
+        return w;
+    }
+
+    /**
+     * Checks whether a waiter may claim a pair of its component now.
+     *
+     * @param w The waiter from {@link #arrive}, or null.
+     * @return true unless fair mode holds it back behind an older waiter.
+     */
+    public boolean mayClaim(Waiter w) {
+        return !fair || w == null || queues.get(w.component).peek() == w;
+    }
+
+    /**
+     * Records that a waiter claimed a pair; everyone queued ahead of it was passed over.
+     *
+     * @param w The claiming waiter, or null.
+     */
+    public void claimed(Waiter w) {
+        if (w == null) return;
+        Iterator<Waiter> it = queues.get(w.component).iterator();
+        while (it.hasNext()) {
+            Waiter ahead = it.next();
+            if (ahead == w) {
+                it.remove();
+                break;
+            }
+            ahead.passedOver++;
+        }
+        Stats s = stats.computeIfAbsent(w.name, k -> new Stats(w.component));
+        long waited = clock.nanoTime() - w.since;
+        s.served++;
+        s.totalWait += waited;
+        s.maxWait = Math.max(s.maxWait, waited);
+        s.passedOver += w.passedOver;
+        if (w.passedOver >= starvationThreshold) {
+            s.starvationEvents++;
+        }
+    }
+
+    /**
+     * Removes a waiter that stopped waiting without claiming (done or interrupted).
+     *
+     * @param w The waiter, or null.
+     */
+    public void left(Waiter w) {
+        if (w == null) return;
+        queues.get(w.component).remove(w);
+    }
+
+    public boolean isFair() {
+        return fair;
+    }
+
+    /**
+     * Prints service count, mean/max wait, passed-over count and starvation events per
+     * technician, and Jain's fairness index of the service counts within each pool.
+     *
+     * @param out Where to print the report.
+     */
+    public void report(PrintStream out) {
+        out.printf("%-28s %8s %10s %10s %8s %8s%n", "technician", "served", "avg ms", "max ms", "passed", "starved");
+        for (Map.Entry<String, Stats> e : stats.entrySet()) {
+            Stats s = e.getValue();
+            out.printf("%-28s %8d %10.1f %10.1f %8d %8d%n", e.getKey(), s.served,
+                    s.totalWait / 1e6 / Math.max(1, s.served), s.maxWait / 1e6, s.passedOver, s.starvationEvents);
+        }
+        for (Component c : Component.values()) {
+            double sum = 0, squares = 0;
+            int n = 0;
+            for (Stats s : stats.values()) {
+                if (s.component != c) continue;
+                sum += s.served;
+                squares += (double) s.served * s.served;
+                n++;
+            }
+            if (n > 1) {
+                out.printf("%-10s Jain fairness index %.3f over %d technicians%n", c, sum * sum / (n * squares), n);
+            }
+        }
+    }
+
+    /**
+     * One technician's current wait.
+     */
+    public static final class Waiter {
+        final Component component;
+        final String name;
+        final long since;
+        int passedOver;
+
+        Waiter(Component component, String name, long since) {
+            this.component = component;
+            this.name = name;
+            this.since = since;
+        }
+    }
+
+    private static final class Stats {
+        final Component component;
+        long served;
+        long totalWait;
+        long maxWait;
+        long passedOver;
+        long starvationEvents;
+
+        Stats(Component component) {
+            this.component = component;
+        }
+    }
+}
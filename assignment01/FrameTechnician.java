@@ -6,9 +6,9 @@ public class FrameTechnician extends Technician {
     /**
     * Setup the FrameTechnician.
     *
-    * @param monitor The AssemblyMonitor to report and work alongside with.
+    * @param monitor The AssemblyStation to report and work alongside with.
     */
-    public FrameTechnician(AssemblyMonitor monitor) {
+    public FrameTechnician(AssemblyStation monitor) {
         super(monitor, Component.FRAME);
     }
 }
@@ -0,0 +1,211 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rendezvous variant of the AssemblyMonitor: there is no shared table.
+ * The agent hands its pair straight to a technician of the missing component through
+ * that component's SynchronousQueue, then waits on its own reply queue until the
+ * technician hands back the drone number. Several agents therefore assemble in
+ * parallel, one pair each, and every wait parks (no monitor is held).
+ * <p>
+ * Placements are reserved in one AtomicLong (count plus a CLOSED bit), so shutdown
+ * and the quota can never strand an agent whose pair nobody will take. Once done,
+ * whoever observes it hands a poison token to every technician still waiting. An
+ * agent that finds nothing left to reserve waits for that point rather than retrying.
+ */
+public class HandoffAssemblyMonitor implements AssemblyStation {
+
+    private static final Component[] COMPONENTS = Component.values();
+    private static final long CLOSED = 1L << 62;
+    private static final Reply POISON = new Reply();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final SynchronousQueue<Reply>[] handoffs = new SynchronousQueue[COMPONENTS.length];
+    private final AtomicIntegerArray waiting = new AtomicIntegerArray(COMPONENTS.length);
+    private final AtomicLong reserved = new AtomicLong();  // placements so far | CLOSED
+    private final AtomicInteger assembledCount = new AtomicInteger();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final ThreadLocal<Reply> replies = ThreadLocal.withInitial(Reply::new);   // agent side
+    private final ThreadLocal<Reply> claimed = new ThreadLocal<>();                    // technician side
+    private final int maxDrones;
+
+    private volatile HandoffProbe probe = HandoffProbe.DISABLED;
+    private volatile long lastCompletedAt;
+
+    /**
+     * Setup the handoff monitor.
+     *
+     * @param maxDrones The maximum number of drones to be assembled before termination.
+     */
+    public HandoffAssemblyMonitor(int maxDrones) {
+        if (maxDrones <= 0) {
+            throw new IllegalArgumentException("maxDrones must be > 0");
+        }
+        this.maxDrones = maxDrones;
+        for (Component c : COMPONENTS) {
+            handoffs[c.ordinal()] = new SynchronousQueue<>();
+        }
+    }
+
+    /**
+     * Agent reserves a placement, hands the pair to a technician owning the missing
+     * component (blocking until one takes it), then waits for the drone number.
+     *
+     * @param comp1 The first random component placed on the belt by the agent.
+     * @param comp2 The second random, but distinct component, placed on the belt by the agent.
+     */
+    @Override
+    public void placeComponents(Component comp1, Component comp2) {
+        if (comp1 == null || comp2 == null || comp1 == comp2) {
+            throw new IllegalArgumentException("Agent must place two distinct non-null components.");
+        }
+        if (!reserve()) {
+            // Quota fully placed (or closed): wait for the pairs still in flight.
+            try {
+                finished.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+
+        Reply reply = replies.get();
+        reply.missing = Component.missingFrom(comp1, comp2);
+        reply.placedAt = probe.now();
+        probe.placed(reply.missing, reply.placedAt, lastCompletedAt);
+
+        AssemblyLog.printf("%s placed: %s + %s (missing %s)%n",
+                Thread.currentThread().getName(), comp1, comp2, reply.missing);
+
+        try {
+            handoffs[reply.missing.ordinal()].put(reply);
+            reply.drone.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Technician blocks on its component's handoff queue until an agent hands it a pair.
+     *
+     * @param myComponent The missing component to be matched to the Technicians.
+     *
+     * @return true if technician should proceed with assembly, false if done (terminate).
+     */
+    @Override
+    public boolean waitForTurn(Component myComponent) {
+        int i = myComponent.ordinal();
+        // Counted before the isDone() check, so a finisher either sees us or we see done.
+        waiting.incrementAndGet(i);
+        try {
+            if (isDone()) return false;
+            Reply reply = handoffs[i].take();
+            if (reply == POISON) return false;
+            claimed.set(reply);
+            probe.claimed(reply.missing, reply.placedAt);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false; // terminate cleanly if interrupted
+        } finally {
+            waiting.decrementAndGet(i);
+        }
+    }
+
+    /**
+     * Technician hands the drone number back to the agent that placed its pair.
+     */
+    @Override
+    public void completeAssembly() {
+        Reply reply = claimed.get();
+        if (reply == null) return;
+        claimed.remove();
+        lastCompletedAt = probe.completed();
+        int drone = assembledCount.incrementAndGet();
+
+        AssemblyLog.printf("%s completed drone #%d%n", Thread.currentThread().getName(), drone);
+
+        try {
+            reply.drone.put(drone);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (isDone()) {
+            releaseTechnicians();
+        }
+    }
+
+    @Override
+    public int getIdleTechnicians(Component component) {
+        return waiting.get(component.ordinal());
+    }
+
+    @Override
+    public void setProbe(HandoffProbe probe) {
+        this.probe = probe;
+    }
+
+    /**
+     * Stops accepting pairs; waiting technicians are released once every handed-off pair is assembled.
+     */
+    @Override
+    public void shutdown() {
+        long r;
+        do {
+            r = reserved.get();
+        } while ((r & CLOSED) == 0 && !reserved.compareAndSet(r, r | CLOSED));
+        if (isDone()) {
+            releaseTechnicians();
+        }
+    }
+
+    @Override
+    public boolean isDone() {
+        int assembled = assembledCount.get();
+        long r = reserved.get();
+        return assembled >= maxDrones || ((r & CLOSED) != 0 && assembled >= (r & ~CLOSED));
+    }
+
+    @Override
+    public int getAssembledCount() {
+        return assembledCount.get();
+    }
+
+    // Claims one of the quota's placements, unless the quota is used up or we are closed.
+    private boolean reserve() {
+        while (true) {
+            long r = reserved.get();
+            if ((r & CLOSED) != 0 || r >= maxDrones) return false;
+            if (reserved.compareAndSet(r, r + 1)) return true;
+        }
+    }
+
+    // Releases waiting agents and hands a poison token to every technician counted as waiting; idempotent.
+    private void releaseTechnicians() {
+        finished.countDown();
+        for (Component c : COMPONENTS) {
+            int i = c.ordinal();
+            while (waiting.get(i) > 0) {
+                try {
+                    handoffs[i].offer(POISON, 100, TimeUnit.MICROSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * One agent's handoff token, reused for every pair that agent places.
+     */
+    private static final class Reply {
+        final SynchronousQueue<Integer> drone = new SynchronousQueue<>();
+        Component missing;  // published to the technician by the handoff queue
+        long placedAt;
+    }
+}
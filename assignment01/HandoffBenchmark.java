@@ -0,0 +1,243 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Micro-benchmark for the agent/technician handoff of every AssemblyStation.
+ * Assembly time is zero and tracing is off, so only synchronization is measured.
+ * For every backend x agent count x technicians-per-component it runs warmup
+ * rounds, then measured rounds, and reports drones/second and the latency of
+ * each placeComponents call (a full round trip on single-slot tables, the
+ * staging time on the ring buffer).
+ * Options:
+ * <ul>
+ *   <li>{@code --drones=N} drones per round (default 100000).</li>
+ *   <li>{@code --agents=1,2} agent counts to sweep.</li>
+ *   <li>{@code --technicians=1,2,4} technicians per component to sweep.</li>
+ *   <li>{@code --backends=a,b} subset of backends to run (default: all).</li>
+ *   <li>{@code --table-classes=DIR} compiled assignment04 classes; adds its AssemblyTable as
+ *       {@code table} (one slot) and {@code table4} (four slots), see {@link AssemblyTableStation}.</li>
+ *   <li>{@code --seed=N} seed of every round's agent streams (default 42), so runs draw the same pairs.</li>
+ *   <li>{@code --warmup=N} / {@code --rounds=N} warmup and measured rounds (default 2 / 5).</li>
+ * </ul>
+ */
+public class HandoffBenchmark {
+
+    /** Backends under test; add new AssemblyStation implementations here. */
+    private static final Map<String, IntFunction<AssemblyStation>> BACKENDS = new LinkedHashMap<>();
+
+    static {
+        BACKENDS.put("intrinsic", AssemblyMonitor::new);
+        BACKENDS.put("intrinsic-spin", max -> new AssemblyMonitor(max, new AdaptiveSpin()));
+        BACKENDS.put("intrinsic-fair", max -> {
+            AssemblyMonitor m = new AssemblyMonitor(max);
+            m.setFairness(new FairnessTracker(true, RealTimeClock.INSTANCE, 3));
+            return m;
+        });
+        BACKENDS.put("conditions", ConditionAssemblyMonitor::new);
+        BACKENDS.put("lockfree", LockFreeAssemblyMonitor::new);
+        BACKENDS.put("lockfree-spin", max -> new LockFreeAssemblyMonitor(max, new AdaptiveSpin()));
+        BACKENDS.put("handoff", HandoffAssemblyMonitor::new);
+        BACKENDS.put("ring4", max -> new RingBufferAssemblyMonitor(max, 4));
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int drones = 100_000;
+        int[] agentCounts = {1, 2};
+        int[] poolSizes = {1, 2, 4};
+        List<String> backends = null;
+        String tableClasses = null;
+        int warmup = 2;
+        int rounds = 5;
+        long seed = 42;
+        for (String arg : args) {
+            if (arg.startsWith("--drones=")) {
+                drones = Integer.parseInt(arg.substring("--drones=".length()));
+            } else if (arg.startsWith("--agents=")) {
+                agentCounts = parseInts(arg.substring("--agents=".length()));
+            } else if (arg.startsWith("--technicians=")) {
+                poolSizes = parseInts(arg.substring("--technicians=".length()));
+            } else if (arg.startsWith("--backends=")) {
+                backends = Arrays.asList(arg.substring("--backends=".length()).split(","));
+            } else if (arg.startsWith("--table-classes=")) {
+                tableClasses = arg.substring("--table-classes=".length());
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = Integer.parseInt(arg.substring("--warmup=".length()));
+            } else if (arg.startsWith("--rounds=")) {
+                rounds = Integer.parseInt(arg.substring("--rounds=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (tableClasses != null) {
+            ClassLoader loader = AssemblyTableStation.loader(Path.of(tableClasses));
+            BACKENDS.put("table", max -> new AssemblyTableStation(loader, max, 1));
+            BACKENDS.put("table4", max -> new AssemblyTableStation(loader, max, 4));
+        } else {
+            System.out.println("(assignment04 AssemblyTable not included: pass --table-classes=DIR)");
+        }
+        if (backends == null) {
+            backends = new ArrayList<>(BACKENDS.keySet());
+        }
+        for (String name : backends) {
+            if (!BACKENDS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown backend: " + name + " (known: " + BACKENDS.keySet() + ")");
+            }
+        }
+
+        AssemblyLog.setEnabled(false);
+        System.out.printf("Handoff benchmark: %d drones/round, %d warmup, %d measured rounds, %d cores%n%n",
+                drones, warmup, rounds, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-14s %6s %6s %14s %10s %10s %10s%n",
+                "backend", "agents", "techs", "drones/s", "p50 us", "p99 us", "max us");
+
+        for (String name : backends) {
+            IntFunction<AssemblyStation> factory = BACKENDS.get(name);
+            for (int agents : agentCounts) {
+                for (int poolSize : poolSizes) {
+                    for (int i = 0; i < warmup; i++) {
+                        runRound(factory, drones, agents, poolSize, seed);
+                    }
+                    double throughput = 0;
+                    List<long[]> samples = new ArrayList<>();
+                    for (int i = 0; i < rounds; i++) {
+                        Round r = runRound(factory, drones, agents, poolSize, seed);
+                        throughput += r.assembled / (r.elapsedNanos / 1e9);
+                        samples.add(r.latencies);
+                    }
+                    long[] all = merge(samples);
+                    System.out.printf("%-14s %6d %6d %14.0f %10.2f %10.2f %10.2f%n",
+                            name, agents, poolSize, throughput / rounds,
+                            percentile(all, 0.50) / 1e3, percentile(all, 0.99) / 1e3,
+                            percentile(all, 1.0) / 1e3);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs one full assembly of {@code drones} drones and collects the agents' samples.
+     */
+    private static Round runRound(IntFunction<AssemblyStation> factory, int drones, int agents, int poolSize,
+                                  long seed) throws InterruptedException {
+        AssemblyStation station = factory.apply(drones);
+        Workload workload = new Workload(ComponentDistribution.uniform(), seed);
+
+        TechnicianPool[] pools = new TechnicianPool[Component.values().length];
+        for (Component c : Component.values()) {
+            pools[c.ordinal()] = new TechnicianPool(station, c, poolSize, false);
+            pools[c.ordinal()].setMaxAssemblyMillis(0);
+        }
+
+        TimedAgent[] timed = new TimedAgent[agents];
+        Thread[] agentThreads = new Thread[agents];
+        for (int i = 0; i < agents; i++) {
+            timed[i] = new TimedAgent(station, drones, workload.newStream());
+            agentThreads[i] = new Thread(timed[i], "Agent-" + i);
+        }
+
+        for (TechnicianPool pool : pools) {
+            pool.start();
+        }
+        long start = System.nanoTime();
+        for (Thread t : agentThreads) {
+            t.start();
+        }
+        for (Thread t : agentThreads) {
+            t.join();
+        }
+        for (TechnicianPool pool : pools) {
+            pool.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        List<long[]> samples = new ArrayList<>();
+        for (TimedAgent a : timed) {
+            samples.add(Arrays.copyOf(a.latencies, a.count));
+        }
+        return new Round(station.getAssembledCount(), elapsed, merge(samples));
+    }
+
+    /**
+     * Agent that times every placeComponents call into a preallocated array.
+     */
+    private static final class TimedAgent implements Runnable {
+        private final AssemblyStation station;
+        private final long[] latencies;
+        private final Workload.Stream draws;
+        private int count;
+
+        TimedAgent(AssemblyStation station, int capacity, Workload.Stream draws) {
+            this.station = station;
+            this.latencies = new long[capacity];
+            this.draws = draws;
+        }
+
+        @Override
+        public void run() {
+            Component[] components = Component.values();
+            while (!station.isDone()) {
+                Component missing = draws.nextMissing();
+                Component comp1 = components[(missing.ordinal() + 1) % components.length];
+                Component comp2 = components[(missing.ordinal() + 2) % components.length];
+
+                long t0 = System.nanoTime();
+                station.placeComponents(comp1, comp2);
+                long t1 = System.nanoTime();
+                if (count < latencies.length && !station.isDone()) {
+                    latencies[count++] = t1 - t0;
+                }
+            }
+        }
+    }
+
+    private static final class Round {
+        final int assembled;
+        final long elapsedNanos;
+        final long[] latencies;
+
+        Round(int assembled, long elapsedNanos, long[] latencies) {
+            this.assembled = assembled;
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = latencies;
+        }
+    }
+
+    private static long[] merge(List<long[]> parts) {
+        int n = 0;
+        for (long[] p : parts) {
+            n += p.length;
+        }
+        long[] out = new long[n];
+        int pos = 0;
+        for (long[] p : parts) {
+            System.arraycopy(p, 0, out, pos, p.length);
+            pos += p.length;
+        }
+        return out;
+    }
+
+    private static double percentile(long[] samples, double q) {
+        if (samples.length == 0) return 0;
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        int idx = (int) Math.min(sorted.length - 1, Math.ceil(q * sorted.length) - 1);
+        return sorted[Math.max(0, idx)];
+    }
+
+    private static int[] parseInts(String csv) {
+        String[] parts = csv.split(",");
+        int[] out = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            out[i] = Integer.parseInt(parts[i].trim());
+        }
+        return out;
+    }
+}
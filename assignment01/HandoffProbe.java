@@ -0,0 +1,163 @@
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-phase handoff instrumentation for an AssemblyStation.
+ * Stations call {@link #placed}, {@link #claimed} and {@link #completed} at the
+ * three handoff points; the probe records, per Component and per technician thread:
+ * <ul>
+ *   <li>PLACE_TO_CLAIM: pair placed until a technician claims it,</li>
+ *   <li>CLAIM_TO_COMPLETE: claim until completeAssembly (the assembly itself),</li>
+ *   <li>COMPLETE_TO_PLACE: previous completion until the next placement.</li>
+ * </ul>
+ * Recording is allocation-free after a thread's first sample. {@link #DISABLED}
+ * turns every call into a constant return, so uninstrumented stations pay nothing
+ * but a field read.
+ */
+public class HandoffProbe {
+
+    public enum Phase { PLACE_TO_CLAIM, CLAIM_TO_COMPLETE, COMPLETE_TO_PLACE }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final Component[] COMPONENTS = Component.values();
+
+    /** Probe that records nothing; the default for every station. */
+    public static final HandoffProbe DISABLED = new HandoffProbe(false);
+
+    private final boolean enabled;
+    private final LatencyHistogram[][] byComponent = new LatencyHistogram[PHASES.length][COMPONENTS.length];
+    private final Map<String, LatencyHistogram[]> byThread = new ConcurrentHashMap<>();
+    private final ThreadLocal<ThreadRecord> records = ThreadLocal.withInitial(this::register);
+
+    public HandoffProbe() {
+        this(true);
+    }
+
+    private HandoffProbe(boolean enabled) {
+        this.enabled = enabled;
+        for (Phase p : PHASES) {
+            for (Component c : COMPONENTS) {
+                byComponent[p.ordinal()][c.ordinal()] = new LatencyHistogram();
+            }
+        }
+    }
+
+    /**
+     * Returns a timestamp for a placement, or 0 when disabled.
+     *
+     * @return System.nanoTime() if enabled, otherwise 0.
+     */
+    public long now() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Called once a pair has been placed (under the station's lock, if any).
+     *
+     * @param missing         The missing component of the placed pair.
+     * @param placedAt        Timestamp from {@link #now()} taken at placement.
+     * @param lastCompletedAt Timestamp returned by the previous {@link #completed}, or 0.
+     */
+    public void placed(Component missing, long placedAt, long lastCompletedAt) {
+        if (!enabled || lastCompletedAt == 0) return;
+        record(Phase.COMPLETE_TO_PLACE, missing, placedAt - lastCompletedAt, records.get());
+    }
+
+    /**
+     * Called by the technician thread that claims a pair.
+     *
+     * @param missing  The missing component of the claimed pair.
+     * @param placedAt Timestamp passed to {@link #placed} for that pair.
+     */
+    public void claimed(Component missing, long placedAt) {
+        if (!enabled) return;
+        long now = System.nanoTime();
+        ThreadRecord r = records.get();
+        r.claimedAt = now;
+        r.claimed = missing;
+        if (placedAt != 0) {
+            record(Phase.PLACE_TO_CLAIM, missing, now - placedAt, r);
+        }
+    }
+
+    /**
+     * Called by the technician thread that completes its claimed pair.
+     *
+     * @return the completion timestamp, to be handed to the next {@link #placed}.
+     */
+    public long completed() {
+        if (!enabled) return 0;
+        long now = System.nanoTime();
+        ThreadRecord r = records.get();
+        if (r.claimed != null) {
+            record(Phase.CLAIM_TO_COMPLETE, r.claimed, now - r.claimedAt, r);
+            r.claimed = null;
+        }
+        return now;
+    }
+
+    /**
+     * Returns the histogram of one phase for one component.
+     *
+     * @param phase     The handoff phase.
+     * @param component The missing component of the pairs.
+     * @return the live histogram.
+     */
+    public LatencyHistogram histogram(Phase phase, Component component) {
+        return byComponent[phase.ordinal()][component.ordinal()];
+    }
+
+    /**
+     * Prints p50/p90/p99/p99.9/max per phase, per component and per thread.
+     *
+     * @param out Where to print the report.
+     */
+    public void report(PrintStream out) {
+        for (Phase p : PHASES) {
+            out.println("-- " + p + " (us) --");
+            out.printf("%-28s %8s %9s %9s %9s %9s %9s%n", "", "count", "p50", "p90", "p99", "p99.9", "max");
+            for (Component c : COMPONENTS) {
+                printRow(out, c.toString(), byComponent[p.ordinal()][c.ordinal()]);
+            }
+            for (Map.Entry<String, LatencyHistogram[]> e : byThread.entrySet()) {
+                printRow(out, e.getKey(), e.getValue()[p.ordinal()]);
+            }
+        }
+    }
+
+    private void record(Phase phase, Component component, long nanos, ThreadRecord r) {
+        byComponent[phase.ordinal()][component.ordinal()].record(nanos);
+        r.histograms[phase.ordinal()].record(nanos);
+    }
+
+    private ThreadRecord register() {
+        LatencyHistogram[] mine = new LatencyHistogram[PHASES.length];
+        for (int i = 0; i < mine.length; i++) {
+            mine[i] = new LatencyHistogram();
+        }
+        byThread.put(Thread.currentThread().getName(), mine);
+        return new ThreadRecord(mine);
+    }
+
+    private static void printRow(PrintStream out, String label, LatencyHistogram h) {
+        long n = h.count();
+        if (n == 0) return;
+        out.printf("%-28s %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n", label, n,
+                h.percentile(0.50) / 1e3, h.percentile(0.90) / 1e3, h.percentile(0.99) / 1e3,
+                h.percentile(0.999) / 1e3, h.percentile(1.0) / 1e3);
+    }
+
+    /**
+     * Per-thread scratch state: the open claim and the thread's own histograms.
+     */
+    private static final class ThreadRecord {
+        final LatencyHistogram[] histograms;
+        long claimedAt;
+        Component claimed;
+
+        ThreadRecord(LatencyHistogram[] histograms) {
+            this.histograms = histograms;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline reader for an {@link AssemblyJournal}: scans the records and prints event
+ * totals, drones per technician, placement-to-completion latency and throughput
+ * over time.
+ * Usage: {@code java JournalReader FILE [--bucket-ms=N]} (default: 20 buckets over the run).
+ */
+public class JournalReader {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: java JournalReader FILE [--bucket-ms=N]");
+            return;
+        }
+        Path file = Path.of(args[0]);
+        long bucketMillis = 0;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--bucket-ms=")) {
+                bucketMillis = Long.parseLong(args[i].substring("--bucket-ms=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (ch.size() < AssemblyJournal.HEADER_BYTES || buf.getInt(0) != AssemblyJournal.MAGIC) {
+                throw new IOException(file + " is not an assembly journal");
+            }
+            if (buf.getInt(4) != AssemblyJournal.VERSION || buf.getInt(8) != AssemblyJournal.RECORD_BYTES) {
+                throw new IOException("Unsupported journal version " + buf.getInt(4));
+            }
+            List<String> names = readNames(buf);
+            long inFile = (ch.size() - AssemblyJournal.HEADER_BYTES) / AssemblyJournal.RECORD_BYTES;
+            long records = Math.min(buf.getLong(16), inFile);
+
+            long placed = 0, completed = 0, holes = 0, lastNanos = 0;
+            Map<Integer, Long> placedAt = new HashMap<>();
+            Map<Integer, Integer> perThread = new HashMap<>();
+            LatencyHistogram latency = new LatencyHistogram();
+            long[] completionNanos = new long[(int) Math.min(records, Integer.MAX_VALUE)];
+            for (long r = 0; r < records; r++) {
+                int at = (int) (AssemblyJournal.HEADER_BYTES + r * AssemblyJournal.RECORD_BYTES);
+                byte type = buf.get(at);
+                int thread = buf.getInt(at + 4);
+                long nanos = buf.getLong(at + 8);
+                int drone = buf.getInt(at + 16);
+                if (type == AssemblyJournal.PLACED) {
+                    placed++;
+                    placedAt.put(drone, nanos);
+                } else if (type == AssemblyJournal.COMPLETED) {
+                    completionNanos[(int) completed++] = nanos;
+                    perThread.merge(thread, 1, Integer::sum);
+                    Long p = placedAt.remove(drone);
+                    if (p != null) {
+                        latency.record(nanos - p);
+                    }
+                } else {
+                    holes++;
+                    continue;
+                }
+                lastNanos = Math.max(lastNanos, nanos);
+            }
+
+            System.out.printf("%s: %d records (%d placements, %d completions, %d unwritten), %.2f s%n",
+                    file, records, placed, completed, holes, lastNanos / 1e9);
+            System.out.println("Completions per thread:");
+            for (Map.Entry<Integer, Integer> e : perThread.entrySet()) {
+                int id = e.getKey();
+                System.out.printf("  %-32s %8d%n", id < names.size() ? names.get(id) : "thread #" + id, e.getValue());
+            }
+            System.out.printf("Placement to completion (ms): p50 %.1f, p90 %.1f, p99 %.1f, max %.1f%n",
+                    latency.percentile(0.50) / 1e6, latency.percentile(0.90) / 1e6,
+                    latency.percentile(0.99) / 1e6, latency.percentile(1.0) / 1e6);
+            printThroughput(completionNanos, (int) completed, lastNanos, bucketMillis);
+        }
+    }
+
+    private static List<String> readNames(MappedByteBuffer buf) {
+        int count = buf.getInt(12);
+        List<String> names = new ArrayList<>(count);
+        int at = AssemblyJournal.NAMES_OFFSET;
+        for (int i = 0; i < count; i++) {
+            int len = buf.get(at) & 0xFF;
+            byte[] name = new byte[len];
+            for (int j = 0; j < len; j++) {
+                name[j] = buf.get(at + 1 + j);
+            }
+            names.add(new String(name, StandardCharsets.UTF_8));
+            at += 1 + len;
+        }
+        return names;
+    }
+
+    /**
+     * Prints completions per time bucket with a bar scaled to the busiest bucket.
+     */
+    private static void printThroughput(long[] completionNanos, int n, long spanNanos, long bucketMillis) {
+        if (n == 0) return;
+        long bucketNanos = bucketMillis > 0 ? bucketMillis * 1_000_000L : Math.max(1_000_000L, (spanNanos + 19) / 20);
+        int buckets = (int) (spanNanos / bucketNanos) + 1;
+        int[] counts = new int[buckets];
+        for (int i = 0; i < n; i++) {
+            counts[(int) (completionNanos[i] / bucketNanos)]++;
+        }
+        int peak = 1;
+        for (int c : counts) {
+            peak = Math.max(peak, c);
+        }
+        System.out.printf("Throughput (%.0f ms buckets):%n", bucketNanos / 1e6);
+        for (int b = 0; b < buckets; b++) {
+            System.out.printf("  %8.2f s %7d %9.1f/s  %s%n", b * bucketNanos / 1e9, counts[b],
+                    counts[b] / (bucketNanos / 1e9), "#".repeat(counts[b] * 40 / peak));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size log-linear latency histogram (nanoseconds).
+ * Each power of two is split into 16 linear sub-buckets, so any recorded value is
+ * reported within ~6% of its true value. Buckets are preallocated and updated with
+ * atomic increments, so recording never allocates or locks and several threads may
+ * record into the same histogram.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Records one latency sample.
+     *
+     * @param nanos The latency in nanoseconds; negative values are clamped to 0.
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(indexOf(Math.max(0, nanos)));
+    }
+
+    /**
+     * Returns the number of recorded samples.
+     *
+     * @return The total sample count.
+     */
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the value at the given quantile (upper bound of its bucket).
+     *
+     * @param q The quantile in [0, 1]; 1 gives the maximum.
+     * @return the latency in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long percentile(double q) {
+        long total = count();
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(BUCKETS - 1);
+    }
+
+    /**
+     * Adds every sample of another histogram to this one.
+     *
+     * @param other The histogram to merge in.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+    }
+
+    private static int indexOf(long v) {
+        if (v < SUB_BUCKETS) {
+            return (int) v;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) ((v >>> (magnitude - SUB_BITS)) & (SUB_BUCKETS - 1));
+        return (magnitude - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int magnitude = index / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        long width = 1L << (magnitude - SUB_BITS);
+        return ((long) (SUB_BUCKETS + sub) << (magnitude - SUB_BITS)) + width - 1;
+    }
+}
@@ -0,0 +1,291 @@
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Lock-free variant of the AssemblyMonitor.
+ * The whole table state lives in one AtomicLong word updated by CAS:
+ * <pre>
+ *   bits 0-1  phase (FREE, OCCUPIED, CLAIMED)
+ *   bits 2-3  ordinal of the missing component
+ *   bit  4    closed (shutdown requested)
+ *   bits 5-63 assembled count
+ * </pre>
+ * Waiting threads park with LockSupport on a per-component queue, so the placer
+ * unparks only technicians owning the missing component. isDone() and
+ * getAssembledCount() are plain volatile reads. With an AdaptiveSpin, waiters spin
+ * on the state word before enqueueing, so short handoffs need no park/unpark at all.
+ */
+public class LockFreeAssemblyMonitor implements AssemblyStation {
+
+    private static final long FREE = 0;
+    private static final long OCCUPIED = 1;
+    private static final long CLAIMED = 2;
+    private static final long PHASE_MASK = 0x3;
+    private static final int MISSING_SHIFT = 2;
+    private static final long MISSING_MASK = 0x3;
+    private static final long CLOSED = 1L << 4;
+    private static final int COUNT_SHIFT = 5;
+
+    private static final Component[] COMPONENTS = Component.values();
+
+    private final AtomicLong state = new AtomicLong(pack(FREE, 0, 0));
+    private final Map<Component, Queue<Thread>> technicianWaiters = new EnumMap<>(Component.class);
+    private final Queue<Thread> agentWaiters = new ConcurrentLinkedQueue<>();
+    private final AtomicIntegerArray waiting = new AtomicIntegerArray(COMPONENTS.length);
+    private final int maxDrones;
+    private final AdaptiveSpin spin;
+
+    // Written by the placer before its CAS publishes the pair, so a claimer that sees
+    // OCCUPIED also sees the timestamp. With several agents racing for a FREE table a
+    // losing agent may overwrite it, so samples are approximate in that case.
+    private volatile HandoffProbe probe = HandoffProbe.DISABLED;
+    private volatile SimulationClock clock = RealTimeClock.INSTANCE;
+    private volatile long placedAt;
+    private volatile long lastCompletedAt;
+
+    /**
+     * Setup the lock-free monitor.
+     *
+     * @param maxDrones The maximum number of drones to be assembled before termination.
+     */
+    public LockFreeAssemblyMonitor(int maxDrones) {
+        this(maxDrones, AdaptiveSpin.DISABLED);
+    }
+
+    /**
+     * Setup the lock-free monitor with spin-then-park handoffs.
+     *
+     * @param maxDrones The maximum number of drones to be assembled before termination.
+     * @param spin      Spin/yield phase run before every park.
+     */
+    public LockFreeAssemblyMonitor(int maxDrones, AdaptiveSpin spin) {
+        if (maxDrones <= 0) {
+            throw new IllegalArgumentException("maxDrones must be > 0");
+        }
+        this.maxDrones = maxDrones;
+        this.spin = spin;
+        for (Component c : COMPONENTS) {
+            technicianWaiters.put(c, new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * Agent CASes the table from FREE to OCCUPIED, unparks the technicians owning the
+     * missing component, then parks until the table is FREE again or quota reached.
+     *
+     * @param comp1 The first random component placed on the belt by the agent.
+     * @param comp2 The second random, but distinct component, placed on the belt by the agent.
+     */
+    @Override
+    public void placeComponents(Component comp1, Component comp2) {
+        if (comp1 == null || comp2 == null || comp1 == comp2) {
+            throw new IllegalArgumentException("Agent must place two distinct non-null components.");
+        }
+        Component missing = Component.missingFrom(comp1, comp2);
+
+        // Wait until table is free (unless we are done), then claim it for this pair.
+        while (true) {
+            long s = state.get();
+            if (isDone(s)) return;
+            if (phase(s) == FREE) {
+                long t = probe.now();
+                placedAt = t;
+                if (state.compareAndSet(s, pack(OCCUPIED, missing.ordinal(), count(s)) | (s & CLOSED))) {
+                    probe.placed(missing, t, lastCompletedAt);
+                    break;
+                }
+                continue;
+            }
+            if (!parkUntil(agentWaiters, () -> isAgentBlocked(state.get()))) return;
+        }
+
+        AssemblyLog.printf("%s placed: %s + %s (missing %s)%n",
+                Thread.currentThread().getName(), comp1, comp2, missing);
+
+        unparkAll(technicianWaiters.get(missing));
+
+        // Wait until a technician clears the table, or system completes.
+        parkUntil(agentWaiters, () -> isAgentBlocked(state.get()));
+    }
+
+    /**
+     * Technician parks until the table is OCCUPIED with a pair missing their component,
+     * then CASes it to CLAIMED so no other technician takes the same pair.
+     *
+     * @param myComponent The missing component to be matched to the Technicians.
+     *
+     * @return true if technician should proceed with assembly, false if done (terminate).
+     */
+    @Override
+    public boolean waitForTurn(Component myComponent) {
+        Queue<Thread> waiters = technicianWaiters.get(myComponent);
+        while (true) {
+            long s = state.get();
+            if (isDone(s)) return false;
+            if (isMyTurn(s, myComponent)) {
+                if (state.compareAndSet(s, pack(CLAIMED, myComponent.ordinal(), count(s)) | (s & CLOSED))) {
+                    probe.claimed(myComponent, placedAt);
+                    return true;
+                }
+                continue;
+            }
+            waiting.incrementAndGet(myComponent.ordinal());
+            boolean woken;
+            try {
+                woken = parkUntil(waiters, () -> {
+                    long now = state.get();
+                    return !isDone(now) && !isMyTurn(now, myComponent);
+                });
+            } finally {
+                waiting.decrementAndGet(myComponent.ordinal());
+            }
+            if (!woken) {
+                return false; // terminate cleanly if interrupted
+            }
+        }
+    }
+
+    /**
+     * Technician calls this after assembling.
+     * CASes the table back to FREE with the count incremented, then unparks the agent.
+     */
+    @Override
+    public void completeAssembly() {
+        // Published before the CAS that frees the table, i.e. before the next placement.
+        lastCompletedAt = probe.completed();
+        long next;
+        while (true) {
+            long s = state.get();
+            if (isDone(s)) {
+                wakeAll();
+                return;
+            }
+            next = pack(FREE, 0, count(s) + 1) | (s & CLOSED);
+            if (state.compareAndSet(s, next)) break;
+        }
+
+        AssemblyLog.printf("%s completed drone #%d%n",
+                Thread.currentThread().getName(), count(next));
+
+        if (isDone(next)) {
+            // Release every parked thread so all threads can exit.
+            wakeAll();
+        } else {
+            unparkAll(agentWaiters);
+        }
+    }
+
+    @Override
+    public int getIdleTechnicians(Component component) {
+        return waiting.get(component.ordinal());
+    }
+
+    @Override
+    public void setProbe(HandoffProbe probe) {
+        this.probe = probe;
+    }
+
+    @Override
+    public void setClock(SimulationClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Sets the closed bit; waiters are released once the table is FREE.
+     */
+    @Override
+    public void shutdown() {
+        long s;
+        do {
+            s = state.get();
+        } while (!state.compareAndSet(s, s | CLOSED));
+        wakeAll();
+    }
+
+    @Override
+    public boolean isDone() {
+        return isDone(state.get());
+    }
+
+    @Override
+    public int getAssembledCount() {
+        return (int) count(state.get());
+    }
+
+    /**
+     * Relays the missing component of the pair on the table.
+     *
+     * @return the missing component, or null if the table is free.
+     */
+    public Component getMissing() {
+        long s = state.get();
+        return phase(s) == FREE ? null : COMPONENTS[(int) ((s >>> MISSING_SHIFT) & MISSING_MASK)];
+    }
+
+    /**
+     * Enqueues the calling thread and parks it while the condition holds.
+     * The condition is re-checked after enqueueing, so an unpark issued between the
+     * caller's last state read and the park is never lost. The spin phase runs first,
+     * before the thread is visible to wakers.
+     *
+     * @param waiters   The queue the waker will drain.
+     * @param mustWait  Re-evaluated state condition; parking continues while true.
+     * @return false if the thread was interrupted, true otherwise.
+     */
+    private boolean parkUntil(Queue<Thread> waiters, BooleanSupplier mustWait) {
+        if (spin.await(() -> !mustWait.getAsBoolean())) return true;
+        Thread me = Thread.currentThread();
+        waiters.add(me);
+        try {
+            while (mustWait.getAsBoolean()) {
+                clock.park(this);
+                if (me.isInterrupted()) return false;
+            }
+            return true;
+        } finally {
+            waiters.remove(me);
+        }
+    }
+
+    private void unparkAll(Queue<Thread> waiters) {
+        for (Thread t : waiters) {
+            clock.unpark(t);
+        }
+    }
+
+    private void wakeAll() {
+        unparkAll(agentWaiters);
+        for (Queue<Thread> waiters : technicianWaiters.values()) {
+            unparkAll(waiters);
+        }
+    }
+
+    private boolean isAgentBlocked(long s) {
+        return !isDone(s) && phase(s) != FREE;
+    }
+
+    private boolean isMyTurn(long s, Component myComponent) {
+        return phase(s) == OCCUPIED && ((s >>> MISSING_SHIFT) & MISSING_MASK) == myComponent.ordinal();
+    }
+
+    private boolean isDone(long s) {
+        return count(s) >= maxDrones || ((s & CLOSED) != 0 && phase(s) == FREE);
+    }
+
+    private static long pack(long phase, long missingOrdinal, long count) {
+        return (count << COUNT_SHIFT) | (missingOrdinal << MISSING_SHIFT) | phase;
+    }
+
+    private static long phase(long s) {
+        return s & PHASE_MASK;
+    }
+
+    private static long count(long s) {
+        return s >>> COUNT_SHIFT;
+    }
+}
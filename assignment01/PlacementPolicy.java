@@ -0,0 +1,59 @@
+/**
+ * How an Agent chooses the pair it places, expressed as the component left missing.
+ */
+public enum PlacementPolicy {
+
+    /** Whatever the workload distribution draws (uniform unless configured otherwise). */
+    RANDOM {
+        @Override
+        public Component nextMissing(AssemblyStation station, Workload.Stream draws) {
+            return draws.nextMissing();
+        }
+    },
+
+    /**
+     * Leaves out the component with the most idle technicians, so the pair goes to
+     * someone who is waiting rather than back to a busy pool. Ties are broken at
+     * random; with nobody idle it falls back to RANDOM.
+     */
+    LOAD_AWARE {
+        @Override
+        public Component nextMissing(AssemblyStation station, Workload.Stream draws) {
+            Component best = null;
+            int bestIdle = 0;
+            int ties = 0;
+            for (Component c : COMPONENTS) {
+                int idle = station.getIdleTechnicians(c);
+                if (idle > bestIdle) {
+                    best = c;
+                    bestIdle = idle;
+                    ties = 1;
+                } else if (idle == bestIdle && idle > 0 && draws.nextInt(++ties) == 0) {
+                    best = c; // reservoir sampling keeps every tied component equally likely
+                }
+            }
+            return best != null ? best : RANDOM.nextMissing(station, draws);
+        }
+    };
+
+    private static final Component[] COMPONENTS = Component.values();
+
+    /**
+     * Chooses the component the next pair leaves out.
+     *
+     * @param station The station the pair goes to.
+     * @param draws   The agent's random stream.
+     * @return the missing component; the agent places the other two.
+     */
+    public abstract Component nextMissing(AssemblyStation station, Workload.Stream draws);
+
+    /**
+     * Parses a command-line policy name such as {@code random} or {@code load-aware}.
+     *
+     * @param name The policy name, case-insensitive.
+     * @return the matching policy.
+     */
+    public static PlacementPolicy parse(String name) {
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+}
@@ -2,7 +2,7 @@
 * The technician who specializes in propulsions and has an infinite supply of said components.
 */
 public class PropulsionTechnician extends Technician {
-    public PropulsionTechnician(AssemblyMonitor monitor) {
+    public PropulsionTechnician(AssemblyStation monitor) {
         super(monitor, Component.PROPULSION);
     }
 }
@@ -0,0 +1,21 @@
+/**
+ * Wall-clock time: sleeps really sleep.
+ */
+public final class RealTimeClock implements SimulationClock {
+
+    public static final RealTimeClock INSTANCE = new RealTimeClock();
+
+    private RealTimeClock() { }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+}
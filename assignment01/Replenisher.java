@@ -0,0 +1,60 @@
+/**
+ * Producer thread for a ComponentInventory: every interval it makes a batch of each
+ * component and stores what fits. A full bin refuses the batch, so supply can never
+ * run further ahead of demand than the bin capacity. Stops once its station is done.
+ */
+public class Replenisher implements Runnable {
+    private final ComponentInventory inventory;
+    private final AssemblyStation station;
+    private final SimulationClock clock;
+    private final long intervalMillis;
+    private final int batch;
+    private long discarded;  // read only after the thread is joined
+
+    /**
+     * Setup the replenisher.
+     *
+     * @param inventory      The inventory to restock.
+     * @param station        The station whose completion ends production.
+     * @param clock          Clock the production interval elapses on.
+     * @param intervalMillis Time between batches.
+     * @param batch          Units of every component per batch.
+     */
+    public Replenisher(ComponentInventory inventory, AssemblyStation station, SimulationClock clock,
+                       long intervalMillis, int batch) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("intervalMillis must be > 0");
+        }
+        this.inventory = inventory;
+        this.station = station;
+        this.clock = clock;
+        this.intervalMillis = intervalMillis;
+        this.batch = batch;
+    }
+
+    /**
+     * Returns the units produced but refused because their bin was full.
+     *
+     * @return The discarded count, valid once the thread has terminated.
+     */
+    public long getDiscarded() {
+        return discarded;
+    }
+
+    @Override
+    public void run() {
+        while (!station.isDone()) {
+            try {
+                clock.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break; // terminate cleanly
+            }
+            for (Component c : Component.values()) {
+                discarded += batch - inventory.restock(c, batch);
+            }
+        }
+
+        AssemblyLog.println(Thread.currentThread().getName() + " terminated.");
+    }
+}
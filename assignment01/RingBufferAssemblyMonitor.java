@@ -0,0 +1,266 @@
+/**
+ * Multi-slot variant of the AssemblyMonitor.
+ * The table is a bounded ring buffer of component pairs, so the Agent can stage
+ * pairs ahead of busy technicians and only blocks (backpressure) when every slot
+ * is taken. Each technician claims the oldest staged pair that is missing its
+ * component; the slot is freed at claim time so assembly overlaps with staging.
+ */
+public class RingBufferAssemblyMonitor implements AssemblyStation {
+
+    private final Component[] first;
+    private final Component[] second;
+    private final Component[] missing;
+    private final long[] placedAt;
+    private int head;           // index of the oldest staged pair
+    private int size;           // number of staged (unclaimed) pairs
+
+    private final int[] idle = new int[Component.values().length]; // technicians waiting, per component
+
+    private int placedCount;    // pairs ever staged; never exceeds maxDrones
+    private int assembledCount;
+    private boolean closed;
+    private HandoffProbe probe = HandoffProbe.DISABLED;
+    private SimulationClock clock = RealTimeClock.INSTANCE;
+    private long lastCompletedAt;
+    private final int maxDrones;
+
+    /**
+     * Setup the ring buffer monitor.
+     *
+     * @param maxDrones The maximum number of drones to be assembled before termination.
+     * @param slots     The number of component pairs the table can hold at once.
+     */
+    public RingBufferAssemblyMonitor(int maxDrones, int slots) {
+        if (maxDrones <= 0) {
+            throw new IllegalArgumentException("maxDrones must be > 0");
+        }
+        if (slots <= 0) {
+            throw new IllegalArgumentException("slots must be > 0");
+        }
+        this.maxDrones = maxDrones;
+        this.first = new Component[slots];
+        this.second = new Component[slots];
+        this.missing = new Component[slots];
+        this.placedAt = new long[slots];
+    }
+
+    /**
+     * Agent stages 2 distinct components in the next free slot. Returns as soon as
+     * the pair is staged; blocks only while the buffer is full. Once every drone of
+     * the quota has been staged, blocks until the last one is assembled.
+     *
+     * @param comp1 The first random component placed on the belt by the agent.
+     * @param comp2 The second random, but distinct component, placed on the belt by the agent.
+     */
+    @Override
+    public synchronized void placeComponents(Component comp1, Component comp2) {
+        while (!isDone() && !closed && (size == missing.length || placedCount >= maxDrones)) {
+            try {
+                clock.waitOn(this);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (isDone() || closed) return;
+
+        if (comp1 == null || comp2 == null || comp1 == comp2) {
+            throw new IllegalArgumentException("Agent must place two distinct non-null components.");
+        }
+
+        int tail = (head + size) % missing.length;
+        first[tail] = comp1;
+        second[tail] = comp2;
+        missing[tail] = Component.missingFrom(comp1, comp2);
+        placedAt[tail] = probe.now();
+        probe.placed(missing[tail], placedAt[tail], lastCompletedAt);
+        size++;
+        placedCount++;
+
+        AssemblyLog.printf("%s staged: %s + %s (missing %s) [%d/%d slots]%n",
+                Thread.currentThread().getName(), comp1, comp2, missing[tail], size, missing.length);
+
+        clock.notifyAllOn(this);
+    }
+
+    /**
+     * Technician waits until a staged pair is missing their component, then claims
+     * the oldest such pair and frees its slot.
+     *
+     * @param myComponent The missing component to be matched to the Technicians.
+     *
+     * @return true if technician should proceed with assembly, false if done (terminate).
+     */
+    @Override
+    public boolean waitForTurn(Component myComponent) {
+        return waitForWork(myComponent, false) != null;
+    }
+
+    /**
+     * Technician waits until it can claim a staged pair. Its own component is always
+     * preferred; with stealing allowed, an idle technician also takes the oldest pair
+     * whose owning pool has no idle technician left.
+     *
+     * @param myComponent The component the technician has an infinite supply of.
+     * @param allowSteal  Whether the technician may take pairs owned by another pool.
+     *
+     * @return the missing component of the claimed pair, or null if done (terminate).
+     */
+    @Override
+    public synchronized Component waitForWork(Component myComponent, boolean allowSteal) {
+        idle[myComponent.ordinal()]++;
+        try {
+            int offset = findWork(myComponent, allowSteal);
+            while (!isDone() && offset < 0) {
+                try {
+                    clock.waitOn(this);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+                offset = findWork(myComponent, allowSteal);
+            }
+            if (isDone()) return null;
+
+            int slot = (head + offset) % missing.length;
+            Component taken = missing[slot];
+            probe.claimed(taken, placedAt[slot]);
+            removeAt(offset);
+            // A slot opened up: let the agent stage another pair.
+            clock.notifyAllOn(this);
+            return taken;
+        } finally {
+            idle[myComponent.ordinal()]--;
+        }
+    }
+
+    /**
+     * Technician calls this after assembling (outside the monitor).
+     * Increments the count and wakes waiting threads.
+     */
+    @Override
+    public synchronized void completeAssembly() {
+        if (isDone()) {
+            clock.notifyAllOn(this);
+            return;
+        }
+
+        assembledCount++;
+        lastCompletedAt = probe.completed();
+
+        AssemblyLog.printf("%s completed drone #%d%n",
+                Thread.currentThread().getName(), assembledCount);
+
+        clock.notifyAllOn(this);
+    }
+
+    @Override
+    public synchronized int getIdleTechnicians(Component component) {
+        return idle[component.ordinal()];
+    }
+
+    @Override
+    public synchronized void setProbe(HandoffProbe probe) {
+        this.probe = probe;
+    }
+
+    @Override
+    public synchronized void setClock(SimulationClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Stops staging; waiters are released once every staged pair is assembled.
+     */
+    @Override
+    public synchronized void shutdown() {
+        closed = true;
+        clock.notifyAllOn(this);
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return assembledCount >= maxDrones || (closed && assembledCount >= placedCount);
+    }
+
+    @Override
+    public synchronized int getAssembledCount() {
+        return assembledCount;
+    }
+
+    /**
+     * Returns the number of pairs currently staged and unclaimed.
+     *
+     * @return The number of occupied slots.
+     */
+    public synchronized int getStagedCount() {
+        return size;
+    }
+
+    /**
+     * Finds the oldest staged pair missing the given component.
+     *
+     * @param component The component a technician owns.
+     * @return the offset from head, or -1 if no staged pair matches.
+     */
+    private int indexOf(Component component) {
+        for (int i = 0; i < size; i++) {
+            if (missing[(head + i) % missing.length] == component) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the pair a technician should claim: its own oldest pair, or, when
+     * stealing, the oldest pair whose owning pool has no idle technician.
+     *
+     * @param component  The component a technician owns.
+     * @param allowSteal Whether pairs of other pools may be taken.
+     * @return the offset from head, or -1 if there is nothing to claim.
+     */
+    private int findWork(Component component, boolean allowSteal) {
+        int own = indexOf(component);
+        if (own >= 0 || !allowSteal) {
+            return own;
+        }
+        for (int i = 0; i < size; i++) {
+            Component owner = missing[(head + i) % missing.length];
+            if (idle[owner.ordinal()] == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the pair at the given offset from head, shifting younger pairs down
+     * so staging order is preserved.
+     *
+     * @param offset The offset from head of the pair to remove.
+     */
+    private void removeAt(int offset) {
+        int n = missing.length;
+        if (offset == 0) {
+            // Common case: the oldest pair is claimed, just advance head.
+            first[head] = second[head] = missing[head] = null;
+            placedAt[head] = 0;
+            head = (head + 1) % n;
+            size--;
+            return;
+        }
+        for (int i = offset; i < size - 1; i++) {
+            int to = (head + i) % n;
+            int from = (head + i + 1) % n;
+            first[to] = first[from];
+            second[to] = second[from];
+            missing[to] = missing[from];
+            placedAt[to] = placedAt[from];
+        }
+        int last = (head + size - 1) % n;
+        first[last] = second[last] = missing[last] = null;
+        placedAt[last] = 0;
+        size--;
+    }
+}
@@ -0,0 +1,101 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Driver program: runs K independent assembly lines in one process.
+ * Each line has its own AssemblyMonitor, Agent and technician pools; the lines only
+ * share a striped DroneQuota, so they never contend on a common lock. Every agent
+ * stops as soon as the global quota is exhausted.
+ * Options:
+ * <ul>
+ *   <li>{@code --lines=K} number of lines (default: one per core).</li>
+ *   <li>{@code --drones=N} global drone quota (default 20 per line).</li>
+ *   <li>{@code --technicians=N} technicians per component on every line (default 1).</li>
+ *   <li>{@code --seed=N} seed every agent and technician stream, for repeatable runs (see {@link Workload}).</li>
+ *   <li>{@code --workload=uniform|skewed:COMPONENT:P|replay:FILE} distribution of the missing component.</li>
+ * </ul>
+ */
+public class ShardedAssemblyLine {
+
+    public static void main(String[] args) throws IOException {
+        int lines = Runtime.getRuntime().availableProcessors();
+        long drones = -1;
+        int poolSize = 1;
+        Long seed = null;
+        ComponentDistribution distribution = null;
+        for (String arg : args) {
+            if (arg.startsWith("--lines=")) {
+                lines = Integer.parseInt(arg.substring("--lines=".length()));
+            } else if (arg.startsWith("--drones=")) {
+                drones = Long.parseLong(arg.substring("--drones=".length()));
+            } else if (arg.startsWith("--technicians=")) {
+                poolSize = Integer.parseInt(arg.substring("--technicians=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.startsWith("--workload=")) {
+                distribution = ComponentDistribution.parse(arg.substring("--workload=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (drones < 0) {
+            drones = (long) DroneAssemblyLine.MAX_DRONES * lines;
+        }
+
+        System.out.println("=== Sharded Drone Assembly (" + lines + " lines) ===");
+        Workload workload = Workload.fromOptions(seed, distribution);
+        System.out.println("Global quota: " + drones + ", workload " + workload.describeSeed());
+        System.out.println();
+
+        DroneQuota quota = new DroneQuota(drones, lines);
+        int perLineCap = (int) Math.min(drones, Integer.MAX_VALUE);
+
+        AssemblyStation[] monitors = new AssemblyStation[lines];
+        List<Thread> agents = new ArrayList<>();
+        List<TechnicianPool> pools = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            String prefix = "L" + i + "-";
+            monitors[i] = new AssemblyMonitor(perLineCap);
+            Agent agent = new Agent(monitors[i], quota, i);
+            agent.setWorkload(workload);
+            agents.add(new Thread(agent, prefix + "Agent"));
+            for (Component c : Component.values()) {
+                TechnicianPool pool = new TechnicianPool(monitors[i], c, poolSize, false, prefix);
+                pool.setWorkload(workload);
+                pools.add(pool);
+            }
+        }
+
+        long start = System.nanoTime();
+        for (TechnicianPool pool : pools) {
+            pool.start();
+        }
+        for (Thread agent : agents) {
+            agent.start();
+        }
+
+        try {
+            for (Thread agent : agents) {
+                agent.join();
+            }
+            for (TechnicianPool pool : pools) {
+                pool.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        System.out.println();
+        long total = 0;
+        for (int i = 0; i < lines; i++) {
+            int count = monitors[i].getAssembledCount();
+            total += count;
+            System.out.printf("Line %d: %d drones%n", i, count);
+        }
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("=== %d/%d drones in %.2f s (%.1f drones/s). System terminated. ===%n",
+                total, drones, seconds, total / seconds);
+    }
+}
@@ -0,0 +1,96 @@
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Time source for simulated work (assembly time, agent delays).
+ * {@link RealTimeClock} sleeps on the wall clock; {@link VirtualClock} runs a
+ * discrete-event timeline that jumps ahead whenever every participant is waiting.
+ * <p>
+ * Stations and queues block and wake their threads through the clock (waitOn,
+ * await, park and their wake-up counterparts), so a discrete-event clock sees every
+ * handoff. The defaults just perform the operation, which is all real time needs.
+ * Every wake-up of a site must go through the clock too, or a virtual clock would
+ * keep counting the woken thread as blocked.
+ */
+public interface SimulationClock {
+
+    /**
+     * Returns the current time of this clock.
+     *
+     * @return the time in nanoseconds (origin is clock-specific).
+     */
+    long nanoTime();
+
+    /**
+     * Blocks the calling thread for the given amount of clock time.
+     *
+     * @param millis The simulated duration; values &lt;= 0 return immediately.
+     * @throws InterruptedException if interrupted while sleeping.
+     */
+    void sleep(long millis) throws InterruptedException;
+
+    /**
+     * Waits on a monitor the caller holds, like {@code monitor.wait()}.
+     *
+     * @param monitor The monitor, woken with {@link #notifyAllOn(Object)}.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    default void waitOn(Object monitor) throws InterruptedException {
+        monitor.wait();
+    }
+
+    /**
+     * Wakes every thread waiting on a monitor the caller holds, like {@code monitor.notifyAll()}.
+     *
+     * @param monitor The monitor.
+     */
+    default void notifyAllOn(Object monitor) {
+        monitor.notifyAll();
+    }
+
+    /**
+     * Waits on a condition whose lock the caller holds, like {@code condition.await()}.
+     *
+     * @param condition The condition, woken with {@link #signal} or {@link #signalAll}.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    default void await(Condition condition) throws InterruptedException {
+        condition.await();
+    }
+
+    /**
+     * Wakes one thread waiting on a condition, like {@code condition.signal()}.
+     *
+     * @param condition The condition; the caller holds its lock.
+     */
+    default void signal(Condition condition) {
+        condition.signal();
+    }
+
+    /**
+     * Wakes every thread waiting on a condition, like {@code condition.signalAll()}.
+     *
+     * @param condition The condition; the caller holds its lock.
+     */
+    default void signalAll(Condition condition) {
+        condition.signalAll();
+    }
+
+    /**
+     * Parks the calling thread, like {@code LockSupport.park(blocker)}; may return spuriously.
+     *
+     * @param blocker The object the thread is parked on, for diagnostics.
+     */
+    default void park(Object blocker) {
+        LockSupport.park(blocker);
+    }
+
+    /**
+     * Unparks a thread, like {@code LockSupport.unpark(thread)}.
+     *
+     * @param thread The thread to unpark, or to give a permit to if it is not parked.
+     */
+    default void unpark(Thread thread) {
+        LockSupport.unpark(thread);
+    }
+}
@@ -0,0 +1,227 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer/multi-consumer queue between two pipeline stages.
+ * Slots form a ring; each slot carries a sequence number telling producers and
+ * consumers whose turn it is, so {@link #offer} and {@link #poll} are one CAS on the
+ * tail or head and never lock. Only a producer facing a full ring or a consumer
+ * facing an empty one blocks, on a private monitor that is signalled when (and only
+ * when) someone waits there, as in ComponentInventory.
+ * <p>
+ * Every accepted item records the depth it found, and producers record how long a
+ * full ring held them back, so the queue in front of a slow stage shows both.
+ *
+ * @param <T> The item type.
+ */
+public class StageQueue<T> {
+
+    private final Object[] items;
+    private final AtomicLongArray sequence;
+    private final int capacity;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final SimulationClock clock;
+
+    private final Object signal = new Object();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final LatencyHistogram depth = new LatencyHistogram();
+    private final AtomicLong depthSum = new AtomicLong();
+    private final AtomicLong blockedNanos = new AtomicLong();
+    private final AtomicLong fullEvents = new AtomicLong();
+
+    /**
+     * Setup an empty queue.
+     *
+     * @param capacity Items the queue holds before producers block.
+     * @param clock    Clock producer blocking is measured on; waits and wake-ups go through it.
+     */
+    public StageQueue(int capacity, SimulationClock clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.items = new Object[capacity];
+        this.sequence = new AtomicLongArray(capacity);
+        this.capacity = capacity;
+        this.clock = clock;
+        for (int i = 0; i < capacity; i++) {
+            sequence.set(i, i);
+        }
+    }
+
+    /**
+     * Appends an item without blocking.
+     *
+     * @param item The item to append.
+     * @return false if the queue is full.
+     */
+    public boolean offer(T item) {
+        long pos = tail.get();
+        while (true) {
+            int i = (int) (pos % capacity);
+            long turn = sequence.get(i) - pos;
+            if (turn == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    items[i] = item;
+                    sequence.set(i, pos + 1);  // publishes the item to consumers
+                    long d = pos + 1 - head.get();
+                    depth.record(d);
+                    depthSum.addAndGet(d);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (turn < 0) {
+                return false;  // slot still holds the item from one lap ago
+            } else {
+                pos = tail.get();  // another producer took this slot
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest item without blocking.
+     *
+     * @return the item, or null if the queue is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long pos = head.get();
+        while (true) {
+            int i = (int) (pos % capacity);
+            long turn = sequence.get(i) - (pos + 1);
+            if (turn == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    T item = (T) items[i];
+                    items[i] = null;
+                    sequence.set(i, pos + capacity);  // frees the slot for the next lap
+                    return item;
+                }
+                pos = head.get();
+            } else if (turn < 0) {
+                return null;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    /**
+     * Appends an item, blocking while the queue is full.
+     *
+     * @param item The item to append.
+     * @throws InterruptedException if interrupted while waiting for room.
+     */
+    public void put(T item) throws InterruptedException {
+        if (!offer(item)) {
+            long start = clock.nanoTime();
+            fullEvents.incrementAndGet();
+            waiting.incrementAndGet();
+            try {
+                synchronized (signal) {
+                    while (!offer(item)) {
+                        clock.waitOn(signal);
+                    }
+                }
+            } finally {
+                waiting.decrementAndGet();
+            }
+            blockedNanos.addAndGet(clock.nanoTime() - start);
+        }
+        wakeWaiters();
+    }
+
+    /**
+     * Removes the oldest item, blocking while the queue is empty and open.
+     *
+     * @return the item, or null once the queue is closed and drained.
+     * @throws InterruptedException if interrupted while waiting for an item.
+     */
+    public T take() throws InterruptedException {
+        T item = poll();
+        if (item == null) {
+            waiting.incrementAndGet();
+            try {
+                synchronized (signal) {
+                    while (true) {
+                        // Read closed before polling: producers are done before close(),
+                        // so an empty poll after seeing closed really is the end.
+                        boolean wasClosed = closed;
+                        item = poll();
+                        if (item != null) break;
+                        if (wasClosed) return null;
+                        clock.waitOn(signal);
+                    }
+                }
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+        wakeWaiters();
+        return item;
+    }
+
+    /**
+     * Marks the end of input; call once every producer has stopped putting.
+     * Consumers drain what is left, then {@link #take()} returns null.
+     */
+    public void close() {
+        closed = true;
+        synchronized (signal) {
+            clock.notifyAllOn(signal);
+        }
+    }
+
+    // A blocked thread raises waiting before its last check, so either it sees our
+    // change or we see it and wake it; the monitor is skipped when nobody waits.
+    private void wakeWaiters() {
+        if (waiting.get() > 0) {
+            synchronized (signal) {
+                clock.notifyAllOn(signal);
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the depth found by accepted items (including themselves).
+     *
+     * @return the live depth histogram.
+     */
+    public LatencyHistogram getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the mean depth found by accepted items.
+     *
+     * @return the mean depth, or 0 if nothing was accepted.
+     */
+    public double getMeanDepth() {
+        long n = depth.count();
+        return n == 0 ? 0 : (double) depthSum.get() / n;
+    }
+
+    /**
+     * Returns how long producers were held back by a full queue, on the clock.
+     *
+     * @return the summed blocking time in nanoseconds.
+     */
+    public long getBlockedNanos() {
+        return blockedNanos.get();
+    }
+
+    /**
+     * Returns how many puts found the queue full.
+     *
+     * @return the full-queue count.
+     */
+    public long getFullEvents() {
+        return fullEvents.get();
+    }
+}
@@ -4,34 +4,150 @@
  * Each technician has an infinite supply of ONE component (myComponent).
  */
 public abstract class Technician implements Runnable {
-    protected final AssemblyMonitor monitor;
+    protected final AssemblyStation monitor;
     protected final Component myComponent;
 
+    private volatile boolean workStealing;
+    private volatile long maxAssemblyMillis = 500;
+    private volatile SimulationClock clock = RealTimeClock.INSTANCE;
+    private volatile Workload.Stream draws = new Workload().newStream();
+    private volatile AssemblyPipeline pipeline;
+    private int assembled;  // read only after the thread is joined
+    private int stolen;
+    private long idleNanos;
+    private long assemblyNanos;
+
     /**
     * Setup the technician
     *
-    * @param monitor The AssemblyMonitor to report and work alongside.
+    * @param monitor The AssemblyStation to report and work alongside.
     * @param myComponent The allocated component the technician specializes in.
     */
-    public Technician(AssemblyMonitor monitor, Component myComponent) {
+    public Technician(AssemblyStation monitor, Component myComponent) {
         this.monitor = monitor;
         this.myComponent = myComponent;
     }
 
+    /**
+    * Allows this technician to take pairs owned by other pools when idle.
+    *
+    * @param workStealing true to enable work stealing.
+    */
+    public void setWorkStealing(boolean workStealing) {
+        this.workStealing = workStealing;
+    }
+
+    /**
+    * Sets the upper bound of the simulated (random) assembly time.
+    *
+    * @param maxAssemblyMillis The maximum assembly time; 0 assembles instantly.
+    */
+    public void setMaxAssemblyMillis(long maxAssemblyMillis) {
+        this.maxAssemblyMillis = maxAssemblyMillis;
+    }
+
+    /**
+    * Sets the clock the simulated assembly time elapses on.
+    *
+    * @param clock Real or virtual time.
+    */
+    public void setClock(SimulationClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+    * Sets the random stream the simulated assembly times are drawn from.
+    *
+    * @param draws This technician's own stream.
+    */
+    public void setDraws(Workload.Stream draws) {
+        this.draws = draws;
+    }
+
+    /**
+    * Hands every drone to a downstream pipeline after the table handoff instead of
+    * finishing it here.
+    *
+    * @param pipeline The pipeline to feed, or null to finish drones here.
+    */
+    public void setPipeline(AssemblyPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    /**
+    * Returns the number of drones this technician assembled.
+    *
+    * @return The assembled count, valid once the thread has terminated.
+    */
+    public int getAssembled() {
+        return assembled;
+    }
+
+    /**
+    * Returns how many of this technician's drones were stolen from other pools.
+    *
+    * @return The stolen count, valid once the thread has terminated.
+    */
+    public int getStolen() {
+        return stolen;
+    }
+
+    /**
+    * Returns how long this technician waited for work, on its clock.
+    *
+    * @return The idle time in nanoseconds, valid once the thread has terminated.
+    */
+    public long getIdleNanos() {
+        return idleNanos;
+    }
+
+    /**
+    * Returns how long this technician spent assembling (or fitting) at the table,
+    * on its clock. The pair stays on the table meanwhile.
+    *
+    * @return The assembly time in nanoseconds, valid once the thread has terminated.
+    */
+    public long getAssemblyNanos() {
+        return assemblyNanos;
+    }
+
     @Override
     public void run() {
-        while (monitor.waitForTurn(myComponent)) {
+        Component work;
+        while (true) {
+            long waitStart = clock.nanoTime();
+            work = monitor.waitForWork(myComponent, workStealing);
+            idleNanos += clock.nanoTime() - waitStart;
+            if (work == null) break;
+
             // Assemble outside monitor (do NOT hold the lock while "working").
-            try {
-                Thread.sleep((long) (Math.random() * 500));
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break; // terminate cleanly
+            // With a pipeline this is only the fit at the table; the stages do the rest.
+            if (maxAssemblyMillis > 0) {
+                long assemblyStart = clock.nanoTime();
+                try {
+                    clock.sleep(draws.nextLong(maxAssemblyMillis));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break; // terminate cleanly
+                }
+                assemblyNanos += clock.nanoTime() - assemblyStart;
             }
 
             monitor.completeAssembly();
+            assembled++;
+            if (work != myComponent) stolen++;
+
+            // Table is free again; a full first stage now holds back this technician only.
+            if (pipeline != null) {
+                try {
+                    pipeline.submit(work);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
         }
 
-        System.out.println(Thread.currentThread().getName() + " terminated.");
+        AssemblyLog.println(Thread.currentThread().getName() + " terminated.");
     }
 }
@@ -0,0 +1,205 @@
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A pool of technician threads that all own the same Component.
+ * Pools let the line run several assemblies of one component at once; with work
+ * stealing enabled an idle pool member may also take pairs queued for a pool whose
+ * members are all busy.
+ */
+public class TechnicianPool {
+
+    private final Component component;
+    private final Technician[] technicians;
+    private final Thread[] threads;
+
+    /**
+     * Setup the pool.
+     *
+     * @param monitor      The AssemblyStation the technicians work alongside.
+     * @param component    The component every technician in the pool owns.
+     * @param size         Number of technician threads in the pool.
+     * @param workStealing Whether idle technicians may steal from other pools.
+     */
+    public TechnicianPool(AssemblyStation monitor, Component component, int size, boolean workStealing) {
+        this(monitor, component, size, workStealing, "");
+    }
+
+    /**
+     * Setup the pool with a thread-name prefix (e.g. the line it belongs to).
+     *
+     * @param monitor      The AssemblyStation the technicians work alongside.
+     * @param component    The component every technician in the pool owns.
+     * @param size         Number of technician threads in the pool.
+     * @param workStealing Whether idle technicians may steal from other pools.
+     * @param namePrefix   Prefix for every technician thread name.
+     */
+    public TechnicianPool(AssemblyStation monitor, Component component, int size, boolean workStealing,
+                          String namePrefix) {
+        this(monitor, component, size, workStealing, namePrefix, Thread::new);
+    }
+
+    /**
+     * Setup the pool on threads from the given factory (e.g. virtual threads).
+     *
+     * @param monitor       The AssemblyStation the technicians work alongside.
+     * @param component     The component every technician in the pool owns.
+     * @param size          Number of technician threads in the pool.
+     * @param workStealing  Whether idle technicians may steal from other pools.
+     * @param namePrefix    Prefix for every technician thread name.
+     * @param threadFactory Creates the (unstarted) technician threads.
+     */
+    public TechnicianPool(AssemblyStation monitor, Component component, int size, boolean workStealing,
+                          String namePrefix, ThreadFactory threadFactory) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be > 0");
+        }
+        this.component = component;
+        this.technicians = new Technician[size];
+        this.threads = new Thread[size];
+        for (int i = 0; i < size; i++) {
+            Technician t = newTechnician(monitor, component);
+            t.setWorkStealing(workStealing);
+            String name = namePrefix + t.getClass().getSimpleName() + (size > 1 ? "-" + i : "");
+            technicians[i] = t;
+            threads[i] = threadFactory.newThread(t);
+            threads[i].setName(name);
+        }
+    }
+
+    /**
+     * Sets the simulated assembly time bound of every technician in the pool.
+     *
+     * @param maxAssemblyMillis The maximum assembly time; 0 assembles instantly.
+     */
+    public void setMaxAssemblyMillis(long maxAssemblyMillis) {
+        for (Technician t : technicians) {
+            t.setMaxAssemblyMillis(maxAssemblyMillis);
+        }
+    }
+
+    /**
+     * Sets the clock every technician in the pool assembles on.
+     *
+     * @param clock Real or virtual time.
+     */
+    public void setClock(SimulationClock clock) {
+        for (Technician t : technicians) {
+            t.setClock(clock);
+        }
+    }
+
+    /**
+     * Gives every technician in the pool its own stream of the run's workload.
+     *
+     * @param workload Source of the technicians' assembly-time draws.
+     */
+    public void setWorkload(Workload workload) {
+        for (Technician t : technicians) {
+            t.setDraws(workload.newStream());
+        }
+    }
+
+    /**
+     * Makes every technician in the pool feed its drones to a downstream pipeline.
+     *
+     * @param pipeline The pipeline to feed, or null to finish drones at the table.
+     */
+    public void setPipeline(AssemblyPipeline pipeline) {
+        for (Technician t : technicians) {
+            t.setPipeline(pipeline);
+        }
+    }
+
+    /**
+     * Starts every technician thread in the pool.
+     */
+    public void start() {
+        for (Thread t : threads) {
+            t.start();
+        }
+    }
+
+    /**
+     * Waits for every technician thread in the pool to terminate.
+     *
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void join() throws InterruptedException {
+        for (Thread t : threads) {
+            t.join();
+        }
+    }
+
+    /**
+     * Returns the drones assembled by the whole pool.
+     *
+     * @return The pool's assembled count, valid after {@link #join()}.
+     */
+    public int getAssembledCount() {
+        int total = 0;
+        for (Technician t : technicians) {
+            total += t.getAssembled();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the drones the pool took from other pools.
+     *
+     * @return The pool's stolen count, valid after {@link #join()}.
+     */
+    public int getStolenCount() {
+        int total = 0;
+        for (Technician t : technicians) {
+            total += t.getStolen();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the total time the pool's technicians spent waiting for work.
+     *
+     * @return The summed idle time in nanoseconds, valid after {@link #join()}.
+     */
+    public long getIdleNanos() {
+        long total = 0;
+        for (Technician t : technicians) {
+            total += t.getIdleNanos();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the total time the pool's technicians spent assembling at the table.
+     *
+     * @return The summed assembly time in nanoseconds, valid after {@link #join()}.
+     */
+    public long getAssemblyNanos() {
+        long total = 0;
+        for (Technician t : technicians) {
+            total += t.getAssemblyNanos();
+        }
+        return total;
+    }
+
+    public Component getComponent() {
+        return component;
+    }
+
+    public int size() {
+        return threads.length;
+    }
+
+    private static Technician newTechnician(AssemblyStation monitor, Component component) {
+        switch (component) {
+            case FRAME:
+                return new FrameTechnician(monitor);
+            case PROPULSION:
+                return new PropulsionTechnician(monitor);
+            case FIRMWARE:
+                return new ControlFirmwareTechnician(monitor);
+            default:
+                throw new IllegalArgumentException("Unknown component: " + component);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Discrete-event simulation clock.
+ * Sleeping threads register a wake-up time instead of really sleeping. A daemon
+ * advancer thread jumps virtual time straight to the earliest wake-up as soon as
+ * every participant thread is waiting (asleep on this clock, or blocked in a
+ * station through {@link #waitOn}, {@link #await} or {@link #park}), so a run takes
+ * as long as its handoffs, not its sleeps.
+ * <p>
+ * The clock counts runnable participants exactly instead of sampling thread states.
+ * A participant stops counting when it blocks. It counts again the moment another
+ * thread wakes it through the clock, before it is even scheduled, so time never
+ * moves while a handoff is in flight. The advancer waits until the count drops to
+ * zero, then wakes the earliest sleepers.
+ */
+public final class VirtualClock implements SimulationClock {
+
+    private final Object lock = new Object();
+    private final PriorityQueue<Sleeper> sleepers = new PriorityQueue<>();
+    private final Set<Thread> participants = ConcurrentHashMap.newKeySet();
+    private final Map<Object, int[]> sites = new IdentityHashMap<>();  // monitor or condition -> {blocked, already woken}; guarded by lock
+    private final Set<Thread> parked = new HashSet<>();   // guarded by lock
+    private final Set<Thread> permits = new HashSet<>();  // unparked while not parked; guarded by lock
+
+    private volatile long now;      // virtual nanoseconds since start
+    private long sequence;          // FIFO order for equal wake-up times; guarded by lock
+    private int runnable;           // participants neither finished nor blocked; guarded by lock
+    private long advances;          // guarded by lock
+
+    private final Thread advancer;
+    private volatile boolean running;
+
+    /**
+     * Setup the clock.
+     */
+    public VirtualClock() {
+        this.advancer = new Thread(this::advanceLoop, "VirtualClock");
+        this.advancer.setDaemon(true);
+    }
+
+    /**
+     * Wraps a thread factory so every thread it creates is a participant, i.e. must be
+     * waiting before virtual time may advance. A participant counts as runnable from
+     * creation until it finishes, so every thread created must also be started.
+     *
+     * @param delegate Creates the actual threads.
+     * @return a factory that also registers its threads with this clock.
+     */
+    public ThreadFactory participants(ThreadFactory delegate) {
+        return r -> {
+            Thread t = delegate.newThread(() -> {
+                try {
+                    r.run();
+                } finally {
+                    synchronized (lock) {
+                        participants.remove(Thread.currentThread());
+                        permits.remove(Thread.currentThread());
+                        blocked();
+                    }
+                }
+            });
+            synchronized (lock) {
+                participants.add(t);
+                runnable++;
+            }
+            return t;
+        };
+    }
+
+    /**
+     * Starts advancing virtual time.
+     */
+    public void start() {
+        running = true;
+        advancer.start();
+    }
+
+    /**
+     * Stops the advancer; call once every participant has terminated.
+     */
+    public void stop() {
+        running = false;
+        advancer.interrupt();
+    }
+
+    /**
+     * Returns how many times virtual time jumped forward.
+     *
+     * @return the number of advances.
+     */
+    public long getAdvances() {
+        synchronized (lock) {
+            return advances;
+        }
+    }
+
+    @Override
+    public long nanoTime() {
+        return now;
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        if (millis <= 0) return;
+        Sleeper s;
+        synchronized (lock) {
+            s = new Sleeper(now + millis * 1_000_000L, sequence++, participants.contains(Thread.currentThread()));
+            sleepers.add(s);
+            if (s.counted) {
+                blocked();
+            } else if (runnable == 0) {
+                lock.notifyAll();
+            }
+        }
+        try {
+            synchronized (s) {
+                while (!s.woken) {
+                    s.wait();
+                }
+            }
+        } catch (InterruptedException e) {
+            synchronized (lock) {
+                // Still queued: not woken by the advancer, so not counted as runnable yet.
+                if (sleepers.remove(s) && s.counted) {
+                    runnable++;
+                }
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void waitOn(Object monitor) throws InterruptedException {
+        if (!blockedAt(monitor)) {
+            monitor.wait();
+            return;
+        }
+        try {
+            monitor.wait();
+        } finally {
+            resumedFrom(monitor);
+        }
+    }
+
+    @Override
+    public void notifyAllOn(Object monitor) {
+        wake(monitor, Integer.MAX_VALUE);
+        monitor.notifyAll();
+    }
+
+    @Override
+    public void await(Condition condition) throws InterruptedException {
+        if (!blockedAt(condition)) {
+            condition.await();
+            return;
+        }
+        try {
+            condition.await();
+        } finally {
+            resumedFrom(condition);
+        }
+    }
+
+    @Override
+    public void signal(Condition condition) {
+        wake(condition, 1);
+        condition.signal();
+    }
+
+    @Override
+    public void signalAll(Condition condition) {
+        wake(condition, Integer.MAX_VALUE);
+        condition.signalAll();
+    }
+
+    @Override
+    public void park(Object blocker) {
+        Thread me = Thread.currentThread();
+        boolean counted;
+        synchronized (lock) {
+            // A pending permit makes LockSupport.park return at once, so the thread never blocks.
+            counted = participants.contains(me) && !permits.remove(me);
+            if (counted) {
+                parked.add(me);
+                blocked();
+            }
+        }
+        LockSupport.park(blocker);
+        if (counted) {
+            synchronized (lock) {
+                // Still marked parked: returned spuriously or on interrupt, not through unpark.
+                if (parked.remove(me)) {
+                    runnable++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void unpark(Thread thread) {
+        synchronized (lock) {
+            if (parked.remove(thread)) {
+                runnable++;
+            } else if (participants.contains(thread)) {
+                permits.add(thread);
+            }
+        }
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Counts the calling participant as blocked at a monitor or condition, under the
+     * site's own lock so that a waker holding that lock always sees it.
+     *
+     * @return false if the caller is not a participant (nothing counted).
+     */
+    private boolean blockedAt(Object site) {
+        if (!participants.contains(Thread.currentThread())) return false;
+        synchronized (lock) {
+            sites.computeIfAbsent(site, k -> new int[2])[0]++;
+            blocked();
+        }
+        return true;
+    }
+
+    /**
+     * Uncounts a participant returning from a wait. If a waker already counted it as
+     * runnable it is left as is; otherwise (spurious return, interrupt) it counts now.
+     */
+    private void resumedFrom(Object site) {
+        synchronized (lock) {
+            int[] s = sites.get(site);
+            s[0]--;
+            if (s[1] > 0) {
+                s[1]--;
+            } else {
+                runnable++;
+            }
+            if (s[0] == 0) {
+                sites.remove(site);
+            }
+        }
+    }
+
+    /**
+     * Counts up to n participants blocked at a site as runnable, before they are woken.
+     */
+    private void wake(Object site, int n) {
+        synchronized (lock) {
+            int[] s = sites.get(site);
+            if (s == null) return;
+            int woken = Math.min(n, s[0] - s[1]);
+            s[1] += woken;
+            runnable += woken;
+        }
+    }
+
+    // Caller holds lock.
+    private void blocked() {
+        if (--runnable == 0) {
+            lock.notifyAll();
+        }
+    }
+
+    private void advanceLoop() {
+        while (running) {
+            List<Sleeper> due = new ArrayList<>();
+            synchronized (lock) {
+                try {
+                    while (runnable > 0 || sleepers.isEmpty()) {
+                        lock.wait();
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long wakeAt = sleepers.peek().wakeAt;
+                while (!sleepers.isEmpty() && sleepers.peek().wakeAt == wakeAt) {
+                    Sleeper s = sleepers.poll();
+                    if (s.counted) {
+                        runnable++;
+                    }
+                    due.add(s);
+                }
+                now = wakeAt;
+                advances++;
+            }
+            for (Sleeper s : due) {
+                synchronized (s) {
+                    s.woken = true;
+                    s.notify();
+                }
+            }
+        }
+    }
+
+    /**
+     * A pending wake-up, ordered by time then registration order.
+     */
+    private static final class Sleeper implements Comparable<Sleeper> {
+        final long wakeAt;
+        final long seq;
+        final boolean counted;  // a participant, uncounted while asleep
+        boolean woken;  // guarded by this
+
+        Sleeper(long wakeAt, long seq, boolean counted) {
+            this.wakeAt = wakeAt;
+            this.seq = seq;
+            this.counted = counted;
+        }
+
+        @Override
+        public int compareTo(Sleeper o) {
+            int c = Long.compare(wakeAt, o.wakeAt);
+            return c != 0 ? c : Long.compare(seq, o.seq);
+        }
+    }
+}
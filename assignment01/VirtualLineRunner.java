@@ -0,0 +1,105 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.IntFunction;
+
+/**
+ * Capacity-planning mode: runs many independent assembly lines at once, every Agent
+ * and Technician on its own virtual thread. Reports thread start rate, heap used per
+ * line and drone throughput across all lines.
+ */
+public final class VirtualLineRunner {
+
+    private VirtualLineRunner() { }
+
+    /**
+     * Runs the lines to completion and prints the report.
+     *
+     * @param lines          Number of independent lines.
+     * @param dronesPerLine  Quota of every line.
+     * @param stations       Creates one station per line from its quota.
+     * @param pinning        Whether the station blocks in Object.wait() (pins virtual threads).
+     * @param poolSize       Technicians per component on every line.
+     * @param assemblyMillis Upper bound of the simulated assembly time.
+     * @param workload       Source of every agent's and technician's draws.
+     */
+    public static void run(int lines, int dronesPerLine, IntFunction<AssemblyStation> stations,
+                           boolean pinning, int poolSize, long assemblyMillis, Workload workload) {
+        boolean virtual = VirtualThreads.isAvailable();
+        ThreadFactory threads = VirtualThreads.factory();
+
+        System.out.println("Lines: " + lines + " x " + dronesPerLine + " drones, "
+                + poolSize + " technician(s) per component, assembly <= " + assemblyMillis + " ms, workload "
+                + workload.describeSeed());
+        System.out.println("Threads: " + (virtual ? "virtual" : "platform (virtual threads need Java 21+)"));
+        if (virtual && pinning) {
+            System.out.println("Warning: this monitor waits in Object.wait(), which pins virtual threads "
+                    + "to their carrier; use --conditions or --lockfree.");
+        }
+        System.out.println();
+
+        AssemblyLog.setEnabled(false);
+        long heapBefore = usedHeap();
+
+        AssemblyStation[] monitors = new AssemblyStation[lines];
+        List<Thread> agents = new ArrayList<>(lines);
+        List<TechnicianPool> pools = new ArrayList<>(lines * Component.values().length);
+        for (int i = 0; i < lines; i++) {
+            monitors[i] = stations.apply(dronesPerLine);
+            Agent a = new Agent(monitors[i]);
+            a.setWorkload(workload);
+            Thread agent = threads.newThread(a);
+            agent.setName("L" + i + "-Agent");
+            agents.add(agent);
+            for (Component c : Component.values()) {
+                TechnicianPool pool = new TechnicianPool(monitors[i], c, poolSize, false, "L" + i + "-", threads);
+                pool.setMaxAssemblyMillis(assemblyMillis);
+                pool.setWorkload(workload);
+                pools.add(pool);
+            }
+        }
+        int threadCount = agents.size() + pools.size() * poolSize;
+
+        long start = System.nanoTime();
+        for (TechnicianPool pool : pools) {
+            pool.start();
+        }
+        for (Thread agent : agents) {
+            agent.start();
+        }
+        long startedNanos = System.nanoTime() - start;
+
+        // Sampled while every line is live, so it includes stacks, monitors and pools.
+        long heapPerLine = (usedHeap() - heapBefore) / lines;
+
+        try {
+            for (Thread agent : agents) {
+                agent.join();
+            }
+            for (TechnicianPool pool : pools) {
+                pool.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        AssemblyLog.setEnabled(true);
+
+        long total = 0;
+        for (AssemblyStation m : monitors) {
+            total += m.getAssembledCount();
+        }
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("Started %d threads in %.1f ms (%.0f threads/s)%n",
+                threadCount, startedNanos / 1e6, threadCount / (startedNanos / 1e9));
+        System.out.printf("Heap per line: ~%.1f KB%n", heapPerLine / 1024.0);
+        System.out.printf("=== %d drones on %d lines in %.2f s (%.0f drones/s). System terminated. ===%n",
+                total, lines, seconds, total / seconds);
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
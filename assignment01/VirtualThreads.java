@@ -0,0 +1,43 @@
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads without requiring a Java 21 compiler.
+ * The course environment is Java 17+, so the Thread.ofVirtual() builder is looked
+ * up reflectively; on older runtimes callers fall back to platform threads.
+ */
+public final class VirtualThreads {
+
+    private static final ThreadFactory FACTORY = lookup();
+
+    private VirtualThreads() { }
+
+    /**
+     * Checks whether the running JVM supports virtual threads.
+     *
+     * @return true on Java 21+, false otherwise.
+     */
+    public static boolean isAvailable() {
+        return FACTORY != null;
+    }
+
+    /**
+     * Returns a factory creating unstarted virtual threads, or platform threads when
+     * virtual threads are unavailable.
+     *
+     * @return the thread factory.
+     */
+    public static ThreadFactory factory() {
+        return FACTORY != null ? FACTORY : Thread::new;
+    }
+
+    private static ThreadFactory lookup() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
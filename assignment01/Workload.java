@@ -0,0 +1,159 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded source of per-thread random streams for one run.
+ * Every Agent and Technician gets its own {@link Stream}, split from one master
+ * generator, so draws never contend or allocate. Streams are handed out in thread
+ * creation order; with the same seed each thread sees the same sequence in every
+ * run, whatever the scheduling.
+ */
+public final class Workload {
+
+    private final ComponentDistribution distribution;
+    private final SplittableRandom master;  // guarded by this
+    private final long seed;
+    private final boolean seeded;
+    private final List<Stream> recorded = new ArrayList<>();  // guarded by this
+    private boolean recording;
+
+    /**
+     * Setup an unseeded uniform workload, different on every run.
+     */
+    public Workload() {
+        this(ComponentDistribution.uniform(), new SplittableRandom().nextLong(), false);
+    }
+
+    /**
+     * Setup a reproducible workload.
+     *
+     * @param distribution Distribution of the agents' missing components.
+     * @param seed         Master seed; the same seed reproduces every stream.
+     */
+    public Workload(ComponentDistribution distribution, long seed) {
+        this(distribution, seed, true);
+    }
+
+    /**
+     * Builds the workload for a driver's {@code --seed} and {@code --workload} options.
+     *
+     * @param seed         Master seed, or null for a fresh one.
+     * @param distribution Distribution of the missing components, or null for uniform.
+     * @return an unseeded uniform workload if neither option was given, else a reproducible one.
+     */
+    public static Workload fromOptions(Long seed, ComponentDistribution distribution) {
+        if (seed == null && distribution == null) {
+            return new Workload();
+        }
+        return new Workload(distribution != null ? distribution : ComponentDistribution.uniform(),
+                seed != null ? seed : System.nanoTime());
+    }
+
+    private Workload(ComponentDistribution distribution, long seed, boolean seeded) {
+        this.distribution = distribution;
+        this.master = new SplittableRandom(seed);
+        this.seed = seed;
+        this.seeded = seeded;
+    }
+
+    /**
+     * Records the missing components drawn by every stream created from now on.
+     */
+    public synchronized void startRecording() {
+        recording = true;
+    }
+
+    /**
+     * Creates the stream for one thread; call from the thread creating the participants.
+     *
+     * @return a new independent stream.
+     */
+    public synchronized Stream newStream() {
+        Stream s = new Stream(distribution, master.split(), recording);
+        if (recording) {
+            recorded.add(s);
+        }
+        return s;
+    }
+
+    /**
+     * Writes the recorded draws, stream after stream, one component name per line.
+     * Call once the recorded threads have terminated.
+     *
+     * @param file Where to write; replay it with {@code replay:FILE}.
+     * @throws IOException if the file cannot be written.
+     */
+    public synchronized void writeRecording(Path file) throws IOException {
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(file))) {
+            w.println("# seed " + seed);
+            for (Stream s : recorded) {
+                for (Component c : s.draws) {
+                    w.println(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Describes the seed for the run header.
+     *
+     * @return the seed, or "unseeded".
+     */
+    public String describeSeed() {
+        return seeded ? "seed " + seed : "unseeded";
+    }
+
+    /**
+     * One thread's generator. Not thread-safe: owned by exactly one thread.
+     */
+    public static final class Stream {
+        private final ComponentDistribution distribution;
+        private final SplittableRandom random;
+        private final List<Component> draws;
+        private long index;
+
+        Stream(ComponentDistribution distribution, SplittableRandom random, boolean record) {
+            this.distribution = distribution;
+            this.random = random;
+            this.draws = record ? new ArrayList<>() : null;
+        }
+
+        /**
+         * Draws the component the next pair leaves missing.
+         *
+         * @return the missing component.
+         */
+        public Component nextMissing() {
+            Component c = distribution.draw(random, index++);
+            if (draws != null) {
+                draws.add(c);
+            }
+            return c;
+        }
+
+        /**
+         * Uniform int in [0, bound), e.g. for tie-breaks.
+         *
+         * @param bound Exclusive upper bound.
+         * @return the drawn value.
+         */
+        public int nextInt(int bound) {
+            return random.nextInt(bound);
+        }
+
+        /**
+         * Uniform long in [0, bound), e.g. for simulated durations.
+         *
+         * @param bound Exclusive upper bound, &gt; 0.
+         * @return the drawn value.
+         */
+        public long nextLong(long bound) {
+            return random.nextLong(bound);
+        }
+    }
+}
@@ -6,6 +6,10 @@ import java.util.Scanner;
 
 /**
  * Client application that packages and sends player requests to the server via router.
+ * <p>
+ * With {@code --binary} requests are sent in the binary form of {@link Protocol}, and
+ * binary responses are shown as their text form. If the server answers the JOIN with
+ * {@code ERROR:UNSUPPORTED_VERSION}, the client falls back to text.
  *
  * @version February 07, 2026
  * @author Lavji, Fareen_543
@@ -19,17 +23,37 @@ public class Client {
     private final InetAddress routerAddress;
 
     private int playerId = -1;
+    private boolean binary;
 
     public Client() throws Exception {
+        this(false);
+    }
+
+    /**
+     * Setup the client.
+     *
+     * @param binary Whether to send requests in the binary form.
+     */
+    public Client(boolean binary) throws Exception {
         this.socket = new DatagramSocket(); // ephemeral
         this.routerAddress = InetAddress.getByName(ROUTER_HOST);
+        this.binary = binary;
 
         System.out.println("[client.app] Local UDP port: " + socket.getLocalPort());
-        System.out.println("[client.app] Router target: " + ROUTER_HOST + ":" + ROUTER_PORT);
+        System.out.println("[client.app] Router target: " + ROUTER_HOST + ":" + ROUTER_PORT
+                + (binary ? " (binary protocol v" + Protocol.BINARY_V1 + ")" : ""));
     }
 
     public static void main(String[] args) throws Exception {
-        new Client().run();
+        boolean binary = false;
+        for (String arg : args) {
+            if ("--binary".equals(arg)) {
+                binary = true;
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        new Client(binary).run();
     }
 
     public void run() throws IOException {
@@ -43,6 +67,12 @@ public class Client {
         sendRequest(joinReq);
 
         String joinResp = receiveResponse();
+        if (binary && joinResp.startsWith(ResponseType.ERROR.wireToken() + ":UNSUPPORTED_VERSION")) {
+            System.out.println("[client.app] Server does not speak binary v" + Protocol.BINARY_V1 + "; using text.");
+            binary = false;
+            sendRequest(joinReq);
+            joinResp = receiveResponse();
+        }
 
         // Parse response type using enum
         String[] joinParts = Protocol.split(joinResp);
@@ -69,7 +99,7 @@ public class Client {
         }
 
         // Gameplay loop
-        System.out.println("\nCommands: MOVE dx dy | PICKUP lootId | STATE | QUIT");
+        System.out.println("\nCommands: MOVE dx dy | PICKUP [lootId] | NEARBY radius | STATE | QUIT");
 
         while (true) {
             System.out.print("> ");
@@ -94,13 +124,21 @@ public class Client {
 
                 case "PICKUP":
                     if (tokens.length < 2) {
-                        System.out.println("Usage: PICKUP lootId");
-                        continue;
+                        request = pickupHereBuilder();
+                        break;
                     }
                     int lootId = Integer.parseInt(tokens[1]);
                     request = pickupBuilder(lootId);
                     break;
 
+                case "NEARBY":
+                    if (tokens.length < 2) {
+                        System.out.println("Usage: NEARBY radius");
+                        continue;
+                    }
+                    request = nearbyBuilder(Integer.parseInt(tokens[1]));
+                    break;
+
                 case "STATE":
                     request = stateBuilder();
                     break;
@@ -147,6 +185,18 @@ public class Client {
         );
     }
 
+    public String pickupHereBuilder() {
+        return Protocol.buildRequest(RequestType.PICKUP, String.valueOf(playerId));
+    }
+
+    public String nearbyBuilder(int radius) {
+        return Protocol.buildRequest(
+                RequestType.NEARBY,
+                String.valueOf(playerId),
+                String.valueOf(radius)
+        );
+    }
+
     public String stateBuilder() {
         return Protocol.buildRequest(RequestType.STATE);
     }
@@ -157,10 +207,10 @@ public class Client {
 
     // --- UDP ---
     public void sendRequest(String request) throws IOException {
-        byte[] bytes = Protocol.toBytes(request);
+        byte[] bytes = binary ? Protocol.toBinaryRequest(request) : Protocol.toBytes(request);
         DatagramPacket pkt = new DatagramPacket(bytes, bytes.length, routerAddress, ROUTER_PORT);
 
-        System.out.println("\n[client.app] TX (string): " + request);
+        System.out.println("\n[client.app] TX (string): " + Protocol.describe(bytes, 0, bytes.length));
         Protocol.printBytes("[client.app] TX", bytes);
 
         socket.send(pkt);
@@ -171,9 +221,12 @@ public class Client {
         DatagramPacket pkt = new DatagramPacket(buf, buf.length);
         socket.receive(pkt);
 
-        String resp = Protocol.decode(pkt);
+        // Binary responses are handled as the text they stand for.
+        String resp = Protocol.binaryVersion(pkt.getData(), pkt.getOffset(), pkt.getLength()) == 0
+                ? Protocol.decode(pkt)
+                : Protocol.fromBinary(pkt.getData(), pkt.getOffset(), pkt.getLength());
 
-        System.out.println("[client.app] RX (string): " + resp);
+        System.out.println("[client.app] RX (string): " + Protocol.describe(pkt.getData(), pkt.getOffset(), pkt.getLength()));
         System.out.println("[client.app] RX (bytes) : " + Protocol.toHex(pkt.getData(), pkt.getOffset(), pkt.getLength()));
 
         return resp;
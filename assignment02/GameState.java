@@ -12,38 +12,65 @@
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * The GameState class maintains the global state of a simple Battle Royale
- * environment, including lists of players and loot boxes. It provides methods
+ * environment, including indexes of players and loot boxes. It provides methods
  * for adding players, moving them, processing loot pickups, and serializing
  * the entire game state for transmission.
+ *
+ * The state may be shared by several server worker threads. Methods that only
+ * change a player's own fields (moves) and snapshots run under the read lock,
+ * with each Player guarding its fields with its own monitor, so they proceed in
+ * parallel. Methods that change the indexes (joins, quits, pickups) take the write lock,
+ * so a loot box can only ever be picked up once.
+ *
+ * Players and loot boxes are also kept in a SpatialGrid each, updated as players
+ * move, so pickups by position and "what is near me" queries only look at the
+ * cells around a position instead of every entity in the world.
  */
 public class GameState {
 
-    /** A list of all players currently in the game. */
-    private List<Player> players;
+    /** All players currently in the game, indexed by ID. */
+    private IntIndex<Player> players;
 
-    /** A list of all loot boxes currently placed in the game world. */
-    private List<LootBox> lootBoxes;
+    /** All loot boxes currently placed in the game world, indexed by ID. */
+    private IntIndex<LootBox> lootBoxes;
 
     /** Used to assign unique IDs to new players. */
-    private int nextPlayerId = 100;
+    private final AtomicInteger nextPlayerId = new AtomicInteger(100);
 
     /** Used to assign unique IDs to new loot boxes. */
     private int nextLootBoxId = 200;
 
+    /** Side of one spatial-grid cell, in world units. */
+    private static final int CELL_SIZE = 8;
+
+    /** Hash buckets per spatial grid; cells of any world size are hashed onto these. */
+    private static final int GRID_BUCKETS = 4096;
+
+    /** Player positions by cell; updated on every move. */
+    private final SpatialGrid playerGrid = new SpatialGrid(CELL_SIZE, GRID_BUCKETS);
+
+    /** Loot box positions by cell. */
+    private final SpatialGrid lootGrid = new SpatialGrid(CELL_SIZE, GRID_BUCKETS);
+
+    /** Read lock: lookups, moves, snapshots. Write lock: adding or removing entries. */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
     /**
-     * Constructs a new GameState with empty lists of players and loot boxes,
+     * Constructs a new GameState with empty indexes of players and loot boxes,
      * plus a couple of default loot boxes for demonstration.
      */
     public GameState() {
-        players = new ArrayList<>();
-        lootBoxes = new ArrayList<>();
+        players = new IntIndex<>();
+        lootBoxes = new IntIndex<>();
 
         // Add some default loot boxes as an example.
-        lootBoxes.add(new LootBox(nextLootBoxId++, 5, 5, "HealthPack", 1));
-        lootBoxes.add(new LootBox(nextLootBoxId++, 10, 2, "Ammo", 5));
+        addLootBox(new LootBox(nextLootBoxId++, 5, 5, "HealthPack", 1));
+        addLootBox(new LootBox(nextLootBoxId++, 10, 2, "Ammo", 5));
     }
 
     /**
@@ -53,11 +80,50 @@ public class GameState {
      * @return A Player object representing the newly added player.
      */
     public Player addNewPlayer(String name) {
-        Player p = new Player(nextPlayerId++, 0, 0, 100, name);
-        players.add(p);
+        Player p = new Player(nextPlayerId.getAndIncrement(), 0, 0, 100, name);
+        lock.writeLock().lock();
+        try {
+            players.put(p.getId(), p);
+            playerGrid.insert(p.getId(), p.getX(), p.getY());
+        } finally {
+            lock.writeLock().unlock();
+        }
         return p;
     }
 
+    /**
+     * Removes a player from the game (e.g., on QUIT).
+     *
+     * @param playerId The unique ID of the player to remove.
+     * @return true if the player was in the game, false otherwise.
+     */
+    public boolean removePlayer(int playerId) {
+        lock.writeLock().lock();
+        try {
+            Player p = players.remove(playerId);
+            if (p == null) return false;
+            playerGrid.remove(playerId, p.getX(), p.getY());
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Places a new loot box in the game world.
+     *
+     * @param box The loot box to add; its ID must be unique.
+     */
+    private void addLootBox(LootBox box) {
+        lock.writeLock().lock();
+        try {
+            lootBoxes.put(box.getId(), box);
+            lootGrid.insert(box.getId(), box.getX(), box.getY());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
     /**
      * Processes a request for a player to pick up a loot box, if they are
      * standing at the same position as the box.
@@ -67,22 +133,64 @@ public class GameState {
      * @return true if the pickup was successful, false otherwise.
      */
     public boolean processPickup(int playerId, int lootId) {
-        Player player = getPlayerById(playerId);
-        LootBox box = getLootBoxById(lootId);
-        if (player == null || box == null) {
+        // Exclusive: the check and the removal must be one step, or two players
+        // standing on the same box could both see it and both pick it up.
+        lock.writeLock().lock();
+        try {
+            Player player = getPlayerById(playerId);
+            LootBox box = getLootBoxById(lootId);
+            if (player == null || box == null) {
+                return false;
+            }
+            // Check distance (e.g., if same position, allow pickup)
+            if (player.getX() == box.getX() && player.getY() == box.getY()) {
+                take(player, box);
+                return true;
+            }
             return false;
+        } finally {
+            lock.writeLock().unlock();
         }
-        // Check distance (e.g., if same position, allow pickup)
-        if (player.getX() == box.getX() && player.getY() == box.getY()) {
-            // Example: picking up a HealthPack increases HP
-            if (box.getType().equalsIgnoreCase("HealthPack")) {
-                player.setHealth(player.getHealth() + 20);
+    }
+
+    /**
+     * Picks up whichever loot box lies at the player's position, found through
+     * the loot grid rather than by ID.
+     *
+     * @param playerId The unique ID of the player attempting the pickup.
+     * @return The ID of the loot box picked up, or -1 if there is none here.
+     */
+    public int processPickupHere(int playerId) {
+        lock.writeLock().lock();
+        try {
+            Player player = getPlayerById(playerId);
+            if (player == null) {
+                return -1;
             }
-            // Remove the loot from the game
-            lootBoxes.remove(box);
-            return true;
+            int[] here = lootGrid.at(player.getX(), player.getY());
+            if (here.length == 0) {
+                return -1;
+            }
+            LootBox box = getLootBoxById(here[0]);
+            take(player, box);
+            return box.getId();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a loot box to a player and removes it from the game.
+     * Caller holds the write lock.
+     */
+    private void take(Player player, LootBox box) {
+        // Example: picking up a HealthPack increases HP
+        if (box.getType().equalsIgnoreCase("HealthPack")) {
+            player.setHealth(player.getHealth() + 20);
         }
-        return false;
+        // Remove the loot from the game
+        lootBoxes.remove(box.getId());
+        lootGrid.remove(box.getId(), box.getX(), box.getY());
     }
 
     /**
@@ -93,10 +201,20 @@ public class GameState {
      * @param dy       The change in the y-direction.
      */
     public void movePlayer(int playerId, int dx, int dy) {
-        Player p = getPlayerById(playerId);
-        if (p != null) {
-            p.setX(p.getX() + dx);
-            p.setY(p.getY() + dy);
+        lock.readLock().lock();
+        try {
+            Player p = getPlayerById(playerId);
+            if (p != null) {
+                // The grid entry moves with the player, before another move of the same player can start.
+                synchronized (p) {
+                    int oldX = p.getX();
+                    int oldY = p.getY();
+                    p.moveBy(dx, dy);
+                    playerGrid.move(playerId, oldX, oldY, p.getX(), p.getY());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
         }
     }
 
@@ -113,8 +231,189 @@ public class GameState {
      */
     public String serialize() {
         StringBuilder sb = new StringBuilder();
-        sb.append("PLAYERS=[");
-        for (Player p : players) {
+        lock.readLock().lock();
+        try {
+            sb.append("PLAYERS=[");
+            for (Player p : players) {
+                appendPlayer(sb, p);
+            }
+            sb.append("];");
+
+            sb.append("LOOT=[");
+            for (LootBox lb : lootBoxes) {
+                appendLoot(sb, lb);
+            }
+            sb.append("]");
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Serializes only the other players and the loot boxes within a radius of a
+     * player, in the same format as {@link #serialize()}.
+     *
+     * @param playerId The unique ID of the player at the centre.
+     * @param radius   The maximum (Euclidean) distance.
+     * @return The serialized neighbourhood, or null if the player does not exist.
+     */
+    public String serializeNearby(int playerId, int radius) {
+        StringBuilder sb = new StringBuilder();
+        lock.readLock().lock();
+        try {
+            Player me = getPlayerById(playerId);
+            if (me == null) {
+                return null;
+            }
+            sb.append("PLAYERS=[");
+            for (Player p : otherPlayersNear(me, radius)) {
+                appendPlayer(sb, p);
+            }
+            sb.append("];");
+
+            sb.append("LOOT=[");
+            for (LootBox lb : lootBoxesNear(me, radius)) {
+                appendLoot(sb, lb);
+            }
+            sb.append("]");
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Writes the entire game state in the binary form of {@link #serialize()}
+     * (the world field of {@link Protocol}).
+     *
+     * @param out Where to write.
+     */
+    public void writeState(Protocol.Writer out) {
+        lock.readLock().lock();
+        try {
+            out.putVarint(players.size());
+            for (Player p : players) {
+                writePlayer(out, p);
+            }
+            out.putVarint(lootBoxes.size());
+            for (LootBox lb : lootBoxes) {
+                writeLoot(out, lb);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the binary form of {@link #serializeNearby(int, int)}.
+     *
+     * @param playerId The unique ID of the player at the centre.
+     * @param radius   The maximum (Euclidean) distance.
+     * @param out      Where to write.
+     * @return false (and nothing written) if the player does not exist.
+     */
+    public boolean writeNearby(int playerId, int radius, Protocol.Writer out) {
+        lock.readLock().lock();
+        try {
+            Player me = getPlayerById(playerId);
+            if (me == null) {
+                return false;
+            }
+            List<Player> near = otherPlayersNear(me, radius);
+            out.putVarint(near.size());
+            for (Player p : near) {
+                writePlayer(out, p);
+            }
+            List<LootBox> loot = lootBoxesNear(me, radius);
+            out.putVarint(loot.size());
+            for (LootBox lb : loot) {
+                writeLoot(out, lb);
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the players within a radius of a position.
+     *
+     * @param x      The x-coordinate of the centre.
+     * @param y      The y-coordinate of the centre.
+     * @param radius The maximum (Euclidean) distance.
+     * @return The IDs of the players found.
+     */
+    public int[] playersNear(int x, int y, int radius) {
+        lock.readLock().lock();
+        try {
+            return playerGrid.within(x, y, radius);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the loot boxes within a radius of a position.
+     *
+     * @param x      The x-coordinate of the centre.
+     * @param y      The y-coordinate of the centre.
+     * @param radius The maximum (Euclidean) distance.
+     * @return The IDs of the loot boxes found.
+     */
+    public int[] lootNear(int x, int y, int radius) {
+        lock.readLock().lock();
+        try {
+            return lootGrid.within(x, y, radius);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The players other than me within a radius of me. Caller holds the read lock.
+     */
+    private List<Player> otherPlayersNear(Player me, int radius) {
+        int[] ids;
+        synchronized (me) {
+            ids = playerGrid.within(me.getX(), me.getY(), radius);
+        }
+        List<Player> near = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Player p = getPlayerById(id);
+            if (p != null && p != me) {
+                near.add(p);
+            }
+        }
+        return near;
+    }
+
+    /**
+     * The loot boxes within a radius of a player. Caller holds the read lock.
+     */
+    private List<LootBox> lootBoxesNear(Player me, int radius) {
+        int[] ids;
+        synchronized (me) {
+            ids = lootGrid.within(me.getX(), me.getY(), radius);
+        }
+        List<LootBox> near = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            LootBox lb = getLootBoxById(id);
+            if (lb != null) {
+                near.add(lb);
+            }
+        }
+        return near;
+    }
+
+    /**
+     * Appends one player as (id,x,y,health,name), reading its fields as a unit
+     * so a snapshot never shows it half-way through a move.
+     */
+    private static void appendPlayer(StringBuilder sb, Player p) {
+        synchronized (p) {
             sb.append("(")
                     .append(p.getId()).append(",")
                     .append(p.getX()).append(",")
@@ -123,57 +422,70 @@ public class GameState {
                     .append(p.getName())
                     .append("),");
         }
-        sb.append("];");
+    }
 
-        sb.append("LOOT=[");
-        for (LootBox lb : lootBoxes) {
-            sb.append("(")
-                    .append(lb.getId()).append(",")
-                    .append(lb.getX()).append(",")
-                    .append(lb.getY()).append(",")
-                    .append(lb.getType()).append(",")
-                    .append(lb.getQuantity())
-                    .append("),");
+    /**
+     * Appends one loot box as (id,x,y,type,quantity).
+     */
+    private static void appendLoot(StringBuilder sb, LootBox lb) {
+        sb.append("(")
+                .append(lb.getId()).append(",")
+                .append(lb.getX()).append(",")
+                .append(lb.getY()).append(",")
+                .append(lb.getType()).append(",")
+                .append(lb.getQuantity())
+                .append("),");
+    }
+
+    /**
+     * Writes one player as u id, z x, z y, z health, s name, read as a unit.
+     */
+    private static void writePlayer(Protocol.Writer out, Player p) {
+        synchronized (p) {
+            out.putVarint(p.getId())
+                    .putZigzag(p.getX())
+                    .putZigzag(p.getY())
+                    .putZigzag(p.getHealth())
+                    .putString(p.getName());
         }
-        sb.append("]");
+    }
 
-        return sb.toString();
+    /**
+     * Writes one loot box as u id, z x, z y, s type, u quantity.
+     */
+    private static void writeLoot(Protocol.Writer out, LootBox lb) {
+        out.putVarint(lb.getId())
+                .putZigzag(lb.getX())
+                .putZigzag(lb.getY())
+                .putString(lb.getType())
+                .putVarint(lb.getQuantity());
     }
 
     /**
-     * Finds a player by their unique ID.
+     * Finds a player by their unique ID. Caller holds the read or write lock.
      *
      * @param id The ID of the player to find.
      * @return The matching Player object, or null if none is found.
      */
     private Player getPlayerById(int id) {
-        for (Player p : players) {
-            if (p.getId() == id) {
-                return p;
-            }
-        }
-        return null;
+        return players.get(id);
     }
 
     /**
-     * Finds a loot box by its unique ID.
+     * Finds a loot box by its unique ID. Caller holds the read or write lock.
      *
      * @param id The ID of the loot box to find.
      * @return The matching LootBox object, or null if none is found.
      */
     private LootBox getLootBoxById(int id) {
-        for (LootBox lb : lootBoxes) {
-            if (lb.getId() == id) {
-                return lb;
-            }
-        }
-        return null;
+        return lootBoxes.get(id);
     }
 }
 
 /**
  * The Player class represents a single player's state within the game,
  * including their unique ID, position (x,y), health, and a display name.
+ * Position and health are guarded by the player's own monitor.
  */
 class Player {
 
@@ -223,7 +535,7 @@ class Player {
      *
      * @return The x-coordinate of the player's position.
      */
-    public int getX() {
+    public synchronized int getX() {
         return x;
     }
 
@@ -232,7 +544,7 @@ class Player {
      *
      * @return The y-coordinate of the player's position.
      */
-    public int getY() {
+    public synchronized int getY() {
         return y;
     }
 
@@ -241,7 +553,7 @@ class Player {
      *
      * @return The player's health as an integer.
      */
-    public int getHealth() {
+    public synchronized int getHealth() {
         return health;
     }
 
@@ -254,12 +566,23 @@ class Player {
         return name;
     }
 
+    /**
+     * Moves the player by an offset in one atomic step.
+     *
+     * @param dx The change in the x-direction.
+     * @param dy The change in the y-direction.
+     */
+    public synchronized void moveBy(int dx, int dy) {
+        this.x += dx;
+        this.y += dy;
+    }
+
     /**
      * Sets the x-coordinate of the player's position.
      *
      * @param x The new x-coordinate.
      */
-    public void setX(int x) {
+    public synchronized void setX(int x) {
         this.x = x;
     }
 
@@ -268,7 +591,7 @@ class Player {
      *
      * @param y The new y-coordinate.
      */
-    public void setY(int y) {
+    public synchronized void setY(int y) {
         this.y = y;
     }
 
@@ -277,7 +600,7 @@ class Player {
      *
      * @param health The new health value.
      */
-    public void setHealth(int health) {
+    public synchronized void setHealth(int health) {
         this.health = health;
     }
 }
@@ -0,0 +1,203 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Hash index from int IDs to values, without boxing the keys.
+ *
+ * Values are kept densely in insertion order (until a removal), so iterating is a
+ * plain array walk. A separate open-addressing table with linear probing maps
+ * each ID to its position in the dense array. Lookup, insertion and removal are
+ * O(1) on average: removal moves the last value into the freed position
+ * (swap-remove) and closes the gap in the probe sequence by shifting later entries
+ * back, so no tombstones accumulate.
+ *
+ * Not thread-safe: GameState calls it under its own lock. Concurrent reads are
+ * safe as long as no thread writes.
+ *
+ * @param <V> The value type.
+ */
+public class IntIndex<V> implements Iterable<V> {
+
+    private static final int EMPTY = -1;
+
+    /** Hash table: ID and the dense position it maps to (EMPTY if the slot is free). */
+    private int[] slotKeys;
+    private int[] slotPositions;
+    private int mask;
+    private int shift;
+
+    /** Dense storage: the i-th value and its ID. */
+    private Object[] values;
+    private int[] denseKeys;
+    private int size;
+
+    /**
+     * Constructs an empty index.
+     */
+    public IntIndex() {
+        this(16);
+    }
+
+    /**
+     * Constructs an empty index sized for the expected number of entries.
+     *
+     * @param expected Entries the index should hold before it first grows.
+     */
+    public IntIndex(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        allocateTable(capacity);
+        values = new Object[Math.max(4, expected)];
+        denseKeys = new int[values.length];
+    }
+
+    /**
+     * Finds the value stored under an ID.
+     *
+     * @param key The ID.
+     * @return The value, or null if none is stored.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int slot = findSlot(key);
+        return slot < 0 ? null : (V) values[slotPositions[slot]];
+    }
+
+    /**
+     * Stores a value under an ID, replacing any previous value.
+     *
+     * @param key   The ID.
+     * @param value The value (not null).
+     */
+    public void put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value must not be null");
+        }
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            values[slotPositions[slot]] = value;
+            return;
+        }
+        if ((size + 1) * 2 > slotKeys.length) {
+            rehash(slotKeys.length * 2);
+        }
+        if (size == values.length) {
+            Object[] v = new Object[size * 2];
+            int[] k = new int[size * 2];
+            System.arraycopy(values, 0, v, 0, size);
+            System.arraycopy(denseKeys, 0, k, 0, size);
+            values = v;
+            denseKeys = k;
+        }
+        values[size] = value;
+        denseKeys[size] = key;
+        insertSlot(key, size);
+        size++;
+    }
+
+    /**
+     * Removes the value stored under an ID.
+     *
+     * @param key The ID.
+     * @return The removed value, or null if none was stored.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = findSlot(key);
+        if (slot < 0) return null;
+        int pos = slotPositions[slot];
+        V removed = (V) values[pos];
+
+        // Move the last value into the freed position.
+        int last = size - 1;
+        if (pos != last) {
+            int lastKey = denseKeys[last];
+            slotPositions[findSlot(lastKey)] = pos;
+            values[pos] = values[last];
+            denseKeys[pos] = lastKey;
+        }
+        values[last] = null;
+        size--;
+        deleteSlot(slot);
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<V>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V next() {
+                if (next >= size) throw new NoSuchElementException();
+                return (V) values[next++];
+            }
+        };
+    }
+
+    // --- Open addressing ---
+
+    /** Fibonacci hashing: spreads sequential IDs evenly over the table. */
+    private int home(int key) {
+        return (key * 0x9E3779B9) >>> shift;
+    }
+
+    private int findSlot(int key) {
+        for (int i = home(key); slotPositions[i] != EMPTY; i = (i + 1) & mask) {
+            if (slotKeys[i] == key) return i;
+        }
+        return -1;
+    }
+
+    private void insertSlot(int key, int position) {
+        int i = home(key);
+        while (slotPositions[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        slotKeys[i] = key;
+        slotPositions[i] = position;
+    }
+
+    /**
+     * Frees a slot and shifts later entries of the same probe run back into the
+     * hole when their home slot allows it, so lookups never stop short.
+     */
+    private void deleteSlot(int hole) {
+        int i = (hole + 1) & mask;
+        while (slotPositions[i] != EMPTY) {
+            int home = home(slotKeys[i]);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                slotKeys[hole] = slotKeys[i];
+                slotPositions[hole] = slotPositions[i];
+                hole = i;
+            }
+            i = (i + 1) & mask;
+        }
+        slotPositions[hole] = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        allocateTable(capacity);
+        for (int pos = 0; pos < size; pos++) {
+            insertSlot(denseKeys[pos], pos);
+        }
+    }
+
+    private void allocateTable(int capacity) {
+        slotKeys = new int[capacity];
+        slotPositions = new int[capacity];
+        Arrays.fill(slotPositions, EMPTY);
+        mask = capacity - 1;
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+    }
+}
@@ -4,6 +4,22 @@ import java.nio.charset.StandardCharsets;
 
 /**
  * Helper class that processes the message packet protocols.
+ * <p>
+ * Messages travel either as colon-delimited UTF-8 text ({@code MOVE:100:1:-2}) or in a
+ * compact binary form; the Server answers each request in the form it arrived in, so
+ * text and binary clients share the Router and Server. A binary message starts with a
+ * version byte ({@link #BINARY_V1}); text never does, because every byte below 0x20 is
+ * reserved for binary versions. After the version byte (and after a correlation tag,
+ * which stays text in both forms) comes a one-byte opcode, {@link RequestType#opcode()}
+ * or {@link ResponseType#opcode()}, then the fields listed by the type's binary layout:
+ * <pre>
+ *   u  int, unsigned LEB128 varint (ids, radius, counts; 1 byte below 128)
+ *   z  int, zigzag varint (deltas, coordinates, health; 1 byte within -64..63)
+ *   s  string, varint byte length + UTF-8
+ *   w  world: varint player count, each u id, z x, z y, z health, s name;
+ *            varint loot count, each u id, z x, z y, s type, u quantity
+ *   ?  the fields after it may be left out
+ * </pre>
  *
  * @version February 07, 2026
  * @author Lavji, Fareen_543
@@ -12,6 +28,15 @@ public final class Protocol {
 
     private static final Charset UTF8 = StandardCharsets.UTF_8;
 
+    public static final char TAG_START = '#';
+    public static final char TAG_END = '|';
+
+    /** Version byte leading every binary message. */
+    public static final byte BINARY_V1 = 0x01;
+
+    /** Bytes below this lead a binary message; text starts with a printable character. */
+    private static final int FIRST_TEXT_BYTE = 0x20;
+
     private Protocol() { }
 
     // --- Serializing / Deserializing String <-> bytes ---
@@ -85,6 +110,362 @@ public final class Protocol {
         return out;
     }
 
+    // --- Correlation tags (router <-> server) ---
+
+    /**
+     * Prefixes a payload with a correlation tag {@code #id|}. The server echoes the tag
+     * in front of its response, so the router can match replies to requests.
+     *
+     * @param id The correlation id.
+     * @param b Payload bytes.
+     * @param off Offset of the payload.
+     * @param len Length of the payload.
+     * @return The tagged payload.
+     */
+    public static byte[] tag(long id, byte[] b, int off, int len) {
+        byte[] prefix = toBytes(TAG_START + Long.toString(id) + TAG_END);
+        byte[] out = new byte[prefix.length + len];
+        System.arraycopy(prefix, 0, out, 0, prefix.length);
+        System.arraycopy(b, off, out, prefix.length, len);
+        return out;
+    }
+
+    /**
+     * Returns the length of the correlation tag leading a payload.
+     *
+     * @param b Payload bytes.
+     * @param off Offset of the payload.
+     * @param len Length of the payload.
+     * @return The tag length including both delimiters, or 0 if the payload is untagged.
+     */
+    public static int tagLength(byte[] b, int off, int len) {
+        if (len < 3 || b[off] != TAG_START) return 0;
+        for (int i = off + 1; i < off + len && i - off <= 20; i++) {
+            if (b[i] == TAG_END) return i > off + 1 ? i - off + 1 : 0;
+            if (b[i] < '0' || b[i] > '9') return 0;
+        }
+        return 0;
+    }
+
+    /**
+     * Parses the id of a correlation tag.
+     *
+     * @param b Payload bytes.
+     * @param off Offset of the payload.
+     * @param tagLen Length returned by {@link #tagLength}.
+     * @return The correlation id.
+     */
+    public static long tagId(byte[] b, int off, int tagLen) {
+        long id = 0;
+        for (int i = off + 1; i < off + tagLen - 1; i++) {
+            id = id * 10 + (b[i] - '0');
+        }
+        return id;
+    }
+
+    // --- Binary form ---
+
+    /**
+     * Returns the binary version of a payload.
+     *
+     * @param b Payload bytes (after any correlation tag).
+     * @param off Offset of the payload.
+     * @param len Length of the payload.
+     * @return The version byte, or 0 if the payload is text.
+     */
+    public static int binaryVersion(byte[] b, int off, int len) {
+        if (len == 0 || (b[off] & 0xFF) >= FIRST_TEXT_BYTE) return 0;
+        return b[off];
+    }
+
+    /**
+     * Encodes a text request in the binary form, e.g. for a client that builds its
+     * requests with {@link #buildRequest}.
+     *
+     * @param msg The colon-delimited request.
+     * @return The binary request, version byte first.
+     */
+    public static byte[] toBinaryRequest(String msg) {
+        String[] parts = split(msg.trim());
+        RequestType type = RequestType.fromToken(parts[0]);
+        Writer out = new Writer().put(BINARY_V1).put(type.opcode());
+        putFields(out, type.binaryLayout(), parts);
+        return out.toByteArray();
+    }
+
+    /**
+     * Builds a binary response from text fields, like {@link #buildResponse}.
+     *
+     * @param type The response type (its layout must not contain a world).
+     * @param fields The fields, as in the text form.
+     * @return The binary response, version byte first.
+     */
+    public static byte[] buildBinaryResponse(ResponseType type, String... fields) {
+        String[] parts = new String[fields.length + 1];
+        System.arraycopy(fields, 0, parts, 1, fields.length);
+        Writer out = new Writer().put(BINARY_V1).put(type.opcode());
+        putFields(out, type.binaryLayout(), parts);
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes parts[1..] according to a layout.
+     */
+    private static void putFields(Writer out, String layout, String[] parts) {
+        int field = 1;
+        boolean optional = false;
+        for (int i = 0; i < layout.length(); i++) {
+            char c = layout.charAt(i);
+            if (c == '?') {
+                optional = true;
+                continue;
+            }
+            if (field >= parts.length) {
+                if (optional) return;
+                throw new IllegalArgumentException("BAD_FORMAT");
+            }
+            String f = parts[field++].trim();
+            switch (c) {
+                case 'u':
+                    out.putVarint(Integer.parseInt(f));
+                    break;
+                case 'z':
+                    out.putZigzag(Integer.parseInt(f));
+                    break;
+                case 's':
+                    out.putString(f);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Field '" + c + "' cannot be built from text");
+            }
+        }
+    }
+
+    /**
+     * Renders a binary message as the text message it stands for, so binary traffic
+     * can be printed and handled by text-based code.
+     *
+     * @param b Message bytes, version byte first.
+     * @param off Offset of the message.
+     * @param len Length of the message.
+     * @return The text form (a STATE_DATA response is the bare snapshot, as in text).
+     */
+    public static String fromBinary(byte[] b, int off, int len) {
+        if (binaryVersion(b, off, len) != BINARY_V1) {
+            throw new IllegalArgumentException("UNSUPPORTED_VERSION");
+        }
+        Reader in = new Reader(b, off + 1, len - 1);
+        int opcode = in.get();
+        StringBuilder sb = new StringBuilder();
+        String layout;
+        if ((opcode & ResponseType.OPCODE_FLAG) != 0) {
+            ResponseType type = ResponseType.fromOpcode(opcode);
+            // A text STATE response carries no type token; keep the two forms alike.
+            if (type != ResponseType.STATE_DATA) sb.append(type.wireToken());
+            layout = type.binaryLayout();
+        } else {
+            RequestType type = RequestType.fromOpcode(opcode);
+            sb.append(type.wireToken());
+            layout = type.binaryLayout();
+        }
+        for (int i = 0; i < layout.length(); i++) {
+            char c = layout.charAt(i);
+            if (c == '?') {
+                if (!in.hasMore()) break;
+                continue;
+            }
+            if (sb.length() > 0) sb.append(':');
+            switch (c) {
+                case 'u':
+                    sb.append(in.varint());
+                    break;
+                case 'z':
+                    sb.append(in.zigzag());
+                    break;
+                case 's':
+                    sb.append(in.string());
+                    break;
+                case 'w':
+                    appendWorld(sb, in);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown layout field '" + c + "'");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Renders a world field in the GameState.serialize() format.
+     */
+    private static void appendWorld(StringBuilder sb, Reader in) {
+        sb.append("PLAYERS=[");
+        for (int n = in.varint(); n > 0; n--) {
+            sb.append('(').append(in.varint()).append(',').append(in.zigzag()).append(',').append(in.zigzag())
+                    .append(',').append(in.zigzag()).append(',').append(in.string()).append("),");
+        }
+        sb.append("];LOOT=[");
+        for (int n = in.varint(); n > 0; n--) {
+            sb.append('(').append(in.varint()).append(',').append(in.zigzag()).append(',').append(in.zigzag())
+                    .append(',').append(in.string()).append(',').append(in.varint()).append("),");
+        }
+        sb.append(']');
+    }
+
+    /**
+     * Renders a payload for printing: text as is, binary as its text form.
+     *
+     * @param b Payload bytes (tagged or not).
+     * @param off Offset of the payload.
+     * @param len Length of the payload.
+     */
+    public static String describe(byte[] b, int off, int len) {
+        int tagLen = tagLength(b, off, len);
+        int version = binaryVersion(b, off + tagLen, len - tagLen);
+        if (version == 0) return fromBytes(b, off, len);
+        String tag = fromBytes(b, off, tagLen);
+        try {
+            return tag + "[binary v" + version + "] " + fromBinary(b, off + tagLen, len - tagLen);
+        } catch (RuntimeException e) {
+            return tag + "[binary v" + version + ", unreadable: " + e.getMessage() + "]";
+        }
+    }
+
+    /**
+     * Growable byte buffer for building binary messages.
+     */
+    public static final class Writer {
+        private byte[] buf;
+        private int size;
+
+        public Writer() {
+            this(64);
+        }
+
+        /**
+         * @param capacity Initial capacity in bytes.
+         */
+        public Writer(int capacity) {
+            this.buf = new byte[Math.max(16, capacity)];
+        }
+
+        public Writer put(int b) {
+            ensure(1);
+            buf[size++] = (byte) b;
+            return this;
+        }
+
+        public Writer put(byte[] b, int off, int len) {
+            ensure(len);
+            System.arraycopy(b, off, buf, size, len);
+            size += len;
+            return this;
+        }
+
+        /** Writes an int as an unsigned varint (a negative int takes 5 bytes). */
+        public Writer putVarint(int v) {
+            ensure(5);
+            while ((v & ~0x7F) != 0) {
+                buf[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[size++] = (byte) v;
+            return this;
+        }
+
+        /** Writes a signed int so that small magnitudes of either sign stay short. */
+        public Writer putZigzag(int v) {
+            return putVarint((v << 1) ^ (v >> 31));
+        }
+
+        public Writer putString(String s) {
+            byte[] utf8 = toBytes(s);
+            putVarint(utf8.length);
+            return put(utf8, 0, utf8.length);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Drops everything written after a mark.
+         *
+         * @param mark A size returned by {@link #size()}.
+         */
+        public void truncate(int mark) {
+            size = mark;
+        }
+
+        public byte[] toByteArray() {
+            byte[] out = new byte[size];
+            System.arraycopy(buf, 0, out, 0, size);
+            return out;
+        }
+
+        private void ensure(int more) {
+            if (size + more > buf.length) {
+                byte[] grown = new byte[Math.max(buf.length * 2, size + more)];
+                System.arraycopy(buf, 0, grown, 0, size);
+                buf = grown;
+            }
+        }
+    }
+
+    /**
+     * Reads the fields of a binary message in place; a truncated or malformed message
+     * fails with BAD_FORMAT.
+     */
+    public static final class Reader {
+        private final byte[] b;
+        private final int end;
+        private int pos;
+
+        /**
+         * @param b Message bytes.
+         * @param off Offset of the first byte to read.
+         * @param len Number of bytes that may be read.
+         */
+        public Reader(byte[] b, int off, int len) {
+            this.b = b;
+            this.pos = off;
+            this.end = off + len;
+        }
+
+        public boolean hasMore() {
+            return pos < end;
+        }
+
+        /** Reads one byte, unsigned. */
+        public int get() {
+            if (pos >= end) throw new IllegalArgumentException("BAD_FORMAT");
+            return b[pos++] & 0xFF;
+        }
+
+        public int varint() {
+            int v = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int x = get();
+                v |= (x & 0x7F) << shift;
+                if ((x & 0x80) == 0) return v;
+            }
+            throw new IllegalArgumentException("BAD_FORMAT");
+        }
+
+        public int zigzag() {
+            int v = varint();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        public String string() {
+            int len = varint();
+            if (len < 0 || len > end - pos) throw new IllegalArgumentException("BAD_FORMAT");
+            String s = fromBytes(b, pos, len);
+            pos += len;
+            return s;
+        }
+    }
+
     // --- DEBUG PRINTING (HEX DUMP) FOR AUDIT LOGGING --- //
 
     /**
@@ -109,10 +490,23 @@ public final class Protocol {
      * @param pkt Packet to print.
      */
     public static void printPacket(String tag, DatagramPacket pkt) {
-        System.out.println(tag + " (string): " + decode(pkt));
+        System.out.println(tag + " (string): " + describe(pkt.getData(), pkt.getOffset(), pkt.getLength()));
         System.out.println(tag + " (bytes) : " + toHex(pkt.getData(), pkt.getOffset(), pkt.getLength()));
     }
 
+    /**
+     * Prints a byte range as string and hex dump.
+     *
+     * @param tag Tag to prepend.
+     * @param b Bytes to print.
+     * @param off Offset of the range.
+     * @param len Length of the range.
+     */
+    public static void printPacket(String tag, byte[] b, int off, int len) {
+        System.out.println(tag + " (string): " + describe(b, off, len));
+        System.out.println(tag + " (bytes) : " + toHex(b, off, len));
+    }
+
     /**
      * Prints hex dump as bytes.
      *
@@ -6,16 +6,51 @@
  */
 
 public enum RequestType {
-    JOIN,
-    MOVE,
-    PICKUP,
-    STATE,
-    QUIT;
+    JOIN("s"),
+    MOVE("uzz"),
+    PICKUP("u?u"),
+    STATE(""),
+    QUIT("?u"),
+    NEARBY("uu");
+
+    private static final RequestType[] BY_OPCODE = values();
+
+    private final String binaryLayout;
+
+    RequestType(String binaryLayout) {
+        this.binaryLayout = binaryLayout;
+    }
 
     public static RequestType fromToken(String token) {
         return RequestType.valueOf(token.trim().toUpperCase());
     }
 
+    /**
+     * Finds the request type of a binary opcode.
+     *
+     * @param opcode The opcode byte (unsigned).
+     */
+    public static RequestType fromOpcode(int opcode) {
+        if (opcode < 0 || opcode >= BY_OPCODE.length) {
+            throw new IllegalArgumentException("UNKNOWN_OPCODE");
+        }
+        return BY_OPCODE[opcode];
+    }
+
+    /**
+     * Opcode in the binary protocol: the ordinal, so new types must be appended.
+     */
+    public int opcode() {
+        return ordinal();
+    }
+
+    /**
+     * Fields that follow the opcode in the binary protocol (see {@link Protocol}).
+     */
+    public String binaryLayout() {
+        return binaryLayout;
+    }
+
     public String wireToken() {
         return this.name();
     }
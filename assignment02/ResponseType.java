@@ -5,13 +5,25 @@
  * @author Lavji, Fareen_543
  */
 public enum ResponseType {
-    JOINED,
-    MOVE_OK,
-    PICKUP_OK,
-    PICKUP_FAIL,
-    STATE_DATA,
-    ERROR,
-    QUIT_OK;
+    JOINED("u"),
+    MOVE_OK(""),
+    PICKUP_OK("?u"),
+    PICKUP_FAIL(""),
+    STATE_DATA("w"),
+    ERROR("s?s"),
+    QUIT_OK(""),
+    NEARBY_DATA("w");
+
+    /** Set on every response opcode, so a binary frame tells requests and responses apart. */
+    public static final int OPCODE_FLAG = 0x80;
+
+    private static final ResponseType[] BY_OPCODE = values();
+
+    private final String binaryLayout;
+
+    ResponseType(String binaryLayout) {
+        this.binaryLayout = binaryLayout;
+    }
 
     public String wireToken() {
         return this.name();
@@ -20,4 +32,32 @@ public enum ResponseType {
     public static ResponseType fromToken(String token) {
         return ResponseType.valueOf(token.trim().toUpperCase());
     }
+
+    /**
+     * Finds the response type of a binary opcode.
+     *
+     * @param opcode The opcode byte (unsigned).
+     */
+    public static ResponseType fromOpcode(int opcode) {
+        int ordinal = opcode & ~OPCODE_FLAG;
+        if ((opcode & OPCODE_FLAG) == 0 || ordinal >= BY_OPCODE.length) {
+            throw new IllegalArgumentException("UNKNOWN_OPCODE");
+        }
+        return BY_OPCODE[ordinal];
+    }
+
+    /**
+     * Opcode in the binary protocol: the ordinal with {@link #OPCODE_FLAG} set, so new
+     * types must be appended.
+     */
+    public int opcode() {
+        return OPCODE_FLAG | ordinal();
+    }
+
+    /**
+     * Fields that follow the opcode in the binary protocol (see {@link Protocol}).
+     */
+    public String binaryLayout() {
+        return binaryLayout;
+    }
 }
\ No newline at end of file
@@ -1,10 +1,30 @@
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
-import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Router application that manages/handles client requests and server responses.
+ * <p>
+ * The router never waits for the server: one thread multiplexes a client-facing
+ * channel (UDP 5000) and a server-facing channel on a Selector. Every client request
+ * is forwarded with a correlation tag ({@code #id|}, see {@link Protocol#tag}) and
+ * recorded in a pending-request table; the server echoes the tag, and its reply is
+ * routed back to the client that owns the id, tag removed. Any number of requests
+ * may be in flight, and a request whose reply is lost is answered with
+ * {@code ERROR:TIMEOUT} after the timeout instead of stalling everyone else. Binary
+ * requests (see {@link Protocol}) are forwarded the same way, behind the same text tag,
+ * and time out with a binary ERROR.
+ * <p>
+ * Options: {@code --quiet} (no per-packet output; a stats line every 5 s instead),
+ * {@code --timeout-ms=N} (default 2000).
  *
  * @version February 07, 2026
  * @author Lavji, Fareen_543
@@ -14,56 +34,236 @@ public class Router {
     private static final int ROUTER_PORT = 5000;
     private static final int SERVER_PORT = 6000;
     private static final String SERVER_HOST = "localhost";
+    private static final int MAX_DATAGRAM = 2048;
+    private static final int MAX_READS_PER_WAKEUP = 256;
+    private static final long STATS_INTERVAL_NANOS = 5_000_000_000L;
 
-    private final DatagramSocket socket;
-    private final InetAddress serverAddress;
+    private final Selector selector;
+    private final DatagramChannel clientSide;   // bound to ROUTER_PORT
+    private final DatagramChannel serverSide;   // ephemeral port, talks to the server only
+    private final SelectionKey clientKey;
+    private final SelectionKey serverKey;
+    private final InetSocketAddress serverAddress;
+    private final ByteBuffer rx = ByteBuffer.allocate(MAX_DATAGRAM);
+
+    // Insertion order is send order, so the oldest request is always first.
+    private final Map<Long, Pending> pending = new LinkedHashMap<>();
+    private final ArrayDeque<Outbound> toClients = new ArrayDeque<>();
+    private final ArrayDeque<Outbound> toServer = new ArrayDeque<>();
+    private final long timeoutNanos;
+    private final boolean verbose;
+    private long nextId;
+
+    private long forwarded, replied, expired, unmatched, maxInFlight;
 
     public Router() throws Exception {
-        this.socket = new DatagramSocket(ROUTER_PORT);
-        this.serverAddress = InetAddress.getByName(SERVER_HOST);
+        this(2000, true);
+    }
+
+    /**
+     * Setup the router.
+     *
+     * @param timeoutMillis How long a request may wait for its server reply.
+     * @param verbose Whether to print every packet.
+     */
+    public Router(long timeoutMillis, boolean verbose) throws Exception {
+        this.timeoutNanos = timeoutMillis * 1_000_000L;
+        this.verbose = verbose;
+        this.serverAddress = new InetSocketAddress(SERVER_HOST, SERVER_PORT);
+        this.selector = Selector.open();
+
+        this.clientSide = DatagramChannel.open();
+        clientSide.bind(new InetSocketAddress(ROUTER_PORT));
+        clientSide.configureBlocking(false);
+        this.clientKey = clientSide.register(selector, SelectionKey.OP_READ);
+
+        this.serverSide = DatagramChannel.open();
+        serverSide.bind(null);
+        serverSide.configureBlocking(false);
+        this.serverKey = serverSide.register(selector, SelectionKey.OP_READ);
 
         System.out.println("[router.app] Listening on UDP port " + ROUTER_PORT);
-        System.out.println("[router.app] Forwarding to server " + SERVER_HOST + ":" + SERVER_PORT);
+        System.out.println("[router.app] Forwarding to server " + SERVER_HOST + ":" + SERVER_PORT
+                + " from port " + serverSide.socket().getLocalPort() + ", reply timeout " + timeoutMillis + " ms");
     }
 
     public static void main(String[] args) throws Exception {
-        new Router().runForever();
+        long timeoutMillis = 2000;
+        boolean verbose = true;
+        for (String arg : args) {
+            if ("--quiet".equals(arg)) {
+                verbose = false;
+            } else if (arg.startsWith("--timeout-ms=")) {
+                timeoutMillis = Long.parseLong(arg.substring("--timeout-ms=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        new Router(timeoutMillis, verbose).runForever();
     }
 
     public void runForever() throws IOException {
-        byte[] buf = new byte[2048];
+        long nextStats = System.nanoTime() + STATS_INTERVAL_NANOS;
+        long lastForwarded = -1;
 
         while (true) {
-            // Receive from the client
-            DatagramPacket clientPkt = new DatagramPacket(buf, buf.length);
-            socket.receive(clientPkt);
+            selector.select(selectTimeoutMillis());
+
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (!key.isValid()) continue;
+                if (key.isReadable()) {
+                    if (key == clientKey) {
+                        receiveFromClients();
+                    } else {
+                        receiveFromServer();
+                    }
+                }
+                if (key.isValid() && key.isWritable()) {
+                    flush(key == clientKey ? clientSide : serverSide, key == clientKey ? toClients : toServer, key);
+                }
+            }
+
+            long now = System.nanoTime();
+            expire(now);
+            if (!verbose && now >= nextStats) {
+                if (forwarded != lastForwarded) {
+                    System.out.printf("[router.app] forwarded %d, replied %d, timed out %d, unmatched %d, "
+                            + "in flight %d (max %d)%n", forwarded, replied, expired, unmatched, pending.size(), maxInFlight);
+                    lastForwarded = forwarded;
+                }
+                nextStats = now + STATS_INTERVAL_NANOS;
+            }
+        }
+    }
+
+    // --- Client -> server ---
+    private void receiveFromClients() throws IOException {
+        for (int i = 0; i < MAX_READS_PER_WAKEUP; i++) {
+            rx.clear();
+            SocketAddress client = clientSide.receive(rx);
+            if (client == null) return;
+            rx.flip();
+
+            if (verbose) {
+                System.out.println("\n[router.app] RX from client " + client);
+                Protocol.printPacket("[router.app] RX", rx.array(), 0, rx.limit());
+            }
+
+            long id = nextId++;
+            byte[] tagged = Protocol.tag(id, rx.array(), 0, rx.limit());
+            boolean binary = Protocol.binaryVersion(rx.array(), 0, rx.limit()) == Protocol.BINARY_V1;
+            pending.put(id, new Pending(client, System.nanoTime(), binary));
+            maxInFlight = Math.max(maxInFlight, pending.size());
+            forwarded++;
+            send(serverSide, toServer, serverKey, new Outbound(serverAddress, ByteBuffer.wrap(tagged)));
+
+            if (verbose) {
+                System.out.println("[router.app] FWD -> server " + serverAddress + " as #" + id);
+            }
+        }
+    }
 
-            InetAddress clientAddr = clientPkt.getAddress();
-            int clientPort = clientPkt.getPort();
+    // --- Server -> client ---
+    private void receiveFromServer() throws IOException {
+        for (int i = 0; i < MAX_READS_PER_WAKEUP; i++) {
+            rx.clear();
+            SocketAddress from = serverSide.receive(rx);
+            if (from == null) return;
+            rx.flip();
 
-            System.out.println("\n[router.app] RX from client " + clientAddr + ":" + clientPort);
-            Protocol.printPacket("[router.app] RX", clientPkt);
+            if (verbose) {
+                System.out.println("\n[router.app] RX from server " + from);
+                Protocol.printPacket("[router.app] RX", rx.array(), 0, rx.limit());
+            }
 
-            // Forward identical bytes to the server
-            byte[] forwardBytes = Protocol.copyExactPayload(clientPkt);
-            DatagramPacket toServer = new DatagramPacket(forwardBytes, forwardBytes.length, serverAddress, SERVER_PORT);
-            socket.send(toServer);
+            int tagLen = Protocol.tagLength(rx.array(), 0, rx.limit());
+            Pending p = tagLen == 0 ? null : pending.remove(Protocol.tagId(rx.array(), 0, tagLen));
+            if (p == null) {
+                // Untagged, or the client was already told TIMEOUT.
+                unmatched++;
+                if (verbose) System.out.println("[router.app] DROP reply: no pending request");
+                continue;
+            }
 
-            System.out.println("[router.app] FWD -> server " + serverAddress + ":" + SERVER_PORT);
+            byte[] response = new byte[rx.limit() - tagLen];
+            System.arraycopy(rx.array(), tagLen, response, 0, response.length);
+            replied++;
+            send(clientSide, toClients, clientKey, new Outbound(p.client, ByteBuffer.wrap(response)));
 
-            // Receive from server
-            DatagramPacket serverPkt = new DatagramPacket(buf, buf.length);
-            socket.receive(serverPkt);
+            if (verbose) {
+                System.out.println("[router.app] FWD -> client " + p.client);
+            }
+        }
+    }
+
+    /**
+     * Answers every request older than the timeout with ERROR:TIMEOUT, text or binary.
+     */
+    private void expire(long now) throws IOException {
+        Iterator<Map.Entry<Long, Pending>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Pending> e = it.next();
+            if (now - e.getValue().sentAt < timeoutNanos) break;
+            it.remove();
+            expired++;
+            byte[] timeout = e.getValue().binary
+                    ? Protocol.buildBinaryResponse(ResponseType.ERROR, "TIMEOUT")
+                    : Protocol.toBytes(Protocol.buildResponse(ResponseType.ERROR, "TIMEOUT"));
+            send(clientSide, toClients, clientKey, new Outbound(e.getValue().client, ByteBuffer.wrap(timeout)));
+
+            if (verbose) {
+                System.out.println("[router.app] TIMEOUT #" + e.getKey() + " -> client " + e.getValue().client);
+            }
+        }
+    }
+
+    private long selectTimeoutMillis() {
+        long wait = STATS_INTERVAL_NANOS;
+        if (!pending.isEmpty()) {
+            Pending oldest = pending.values().iterator().next();
+            wait = Math.min(wait, oldest.sentAt + timeoutNanos - System.nanoTime());
+        }
+        return Math.max(1, wait / 1_000_000L);
+    }
 
-            System.out.println("[router.app] RX from server " + serverPkt.getAddress() + ":" + serverPkt.getPort());
-            Protocol.printPacket("[router.app] RX", serverPkt);
+    // --- Non-blocking send: queue and wait for OP_WRITE only when the socket buffer is full ---
+    private void send(DatagramChannel ch, ArrayDeque<Outbound> queue, SelectionKey key, Outbound out) throws IOException {
+        if (queue.isEmpty() && ch.send(out.data, out.target) > 0) return;
+        queue.add(out);
+        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+
+    private void flush(DatagramChannel ch, ArrayDeque<Outbound> queue, SelectionKey key) throws IOException {
+        while (!queue.isEmpty()) {
+            Outbound out = queue.peek();
+            if (ch.send(out.data, out.target) == 0) return;
+            queue.poll();
+        }
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
+    private static final class Pending {
+        final SocketAddress client;
+        final long sentAt;
+        final boolean binary;   // answer a timeout in the request's form
+
+        Pending(SocketAddress client, long sentAt, boolean binary) {
+            this.client = client;
+            this.sentAt = sentAt;
+            this.binary = binary;
+        }
+    }
 
-            // Forward identical bytes back to the originating client
-            byte[] responseBytes = Protocol.copyExactPayload(serverPkt);
-            DatagramPacket toClient = new DatagramPacket(responseBytes, responseBytes.length, clientAddr, clientPort);
-            socket.send(toClient);
+    private static final class Outbound {
+        final SocketAddress target;
+        final ByteBuffer data;
 
-            System.out.println("[router.app] FWD -> client " + clientAddr + ":" + clientPort);
+        Outbound(SocketAddress target, ByteBuffer data) {
+            this.target = target;
+            this.data = data;
         }
     }
 }
\ No newline at end of file
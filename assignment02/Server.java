@@ -1,9 +1,23 @@
 import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Handles player requests and sends responses of updated game states to the client via the router.
+ * <p>
+ * By default one thread receives, handles and replies to each datagram in turn. With
+ * {@code --workers=N} (or {@code auto}, one per core) a receive thread only reads
+ * datagrams and hands them to a pool of N workers that decode, update the shared
+ * {@link GameState} and reply, so requests are processed on several cores. The hand-off
+ * queue is bounded; when it is full the datagram is dropped, as the network would.
+ * {@code --quiet} turns off the per-packet output.
+ * <p>
+ * Requests may be text or binary (see {@link Protocol}); each is answered in its own form.
  *
  * @version February 07, 2026
  * @author Lavji, Fareen_543
@@ -11,44 +25,139 @@ import java.net.DatagramSocket;
 public class Server {
 
     private static final int SERVER_PORT = 6000;
+    private static final int MAX_DATAGRAM = 2048;
+    private static final int WORKER_QUEUE = 1024;
 
     private final DatagramSocket socket;
     private final GameState state;
+    private final boolean verbose;
+    private final AtomicLong dropped = new AtomicLong();  // pooled mode: datagrams refused by a full queue
 
     public Server() throws Exception {
+        this(true);
+    }
+
+    /**
+     * Setup the server.
+     *
+     * @param verbose Whether to print every request and response.
+     */
+    public Server(boolean verbose) throws Exception {
         this.socket = new DatagramSocket(SERVER_PORT);
         this.state = new GameState();
+        this.verbose = verbose;
         System.out.println("[server.app] Listening on UDP port " + SERVER_PORT);
     }
 
     public static void main(String[] args) throws Exception {
-        new Server().runForever();
+        int workers = 0;
+        boolean verbose = true;
+        for (String arg : args) {
+            if (arg.startsWith("--workers=")) {
+                String value = arg.substring("--workers=".length());
+                workers = "auto".equals(value) ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(value);
+            } else if ("--quiet".equals(arg)) {
+                verbose = false;
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        Server server = new Server(verbose);
+        if (workers > 0) {
+            server.runPooled(workers);
+        } else {
+            server.runForever();
+        }
     }
 
     public void runForever() throws IOException {
-        byte[] buf = new byte[2048];
+        byte[] buf = new byte[MAX_DATAGRAM];
 
         while (true) {
             DatagramPacket requestPkt = new DatagramPacket(buf, buf.length);
             socket.receive(requestPkt);
+            handlePacket(requestPkt);
+        }
+    }
 
-            System.out.println("\n[server.app] RX from router " + requestPkt.getAddress() + ":" + requestPkt.getPort());
-            Protocol.printPacket("[server.app] RX", requestPkt);
+    /**
+     * Receive loop that hands every datagram to a worker pool.
+     *
+     * @param workers Number of worker threads.
+     */
+    public void runPooled(int workers) throws IOException {
+        AtomicInteger names = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(WORKER_QUEUE),
+                r -> new Thread(r, "server-worker-" + names.getAndIncrement()),
+                (r, executor) -> {
+                    long n = dropped.incrementAndGet();
+                    if (n % 1000 == 1) {
+                        System.out.println("[server.app] DROP: all workers busy (" + n + " dropped so far)");
+                    }
+                });
+        System.out.println("[server.app] " + workers + " worker thread(s), queue of " + WORKER_QUEUE);
 
-            String requestStr = Protocol.decode(requestPkt);
-            String responseStr = messageHandler(requestStr);
+        while (true) {
+            // Each datagram gets its own buffer: the worker still reads it after the next receive.
+            DatagramPacket requestPkt = new DatagramPacket(new byte[MAX_DATAGRAM], MAX_DATAGRAM);
+            socket.receive(requestPkt);
+            pool.execute(() -> {
+                try {
+                    handlePacket(requestPkt);
+                } catch (IOException e) {
+                    System.out.println("[server.app] TX failed: " + e.getMessage());
+                }
+            });
+        }
+    }
 
-            byte[] responseBytes = Protocol.toBytes(responseStr);
-            DatagramPacket responsePkt = new DatagramPacket(
-                    responseBytes, responseBytes.length,
-                    requestPkt.getAddress(), requestPkt.getPort()
-            );
+    /**
+     * Decodes one request, applies it to the game state and replies to its sender.
+     * Safe to call from several threads at once.
+     *
+     * @param requestPkt The received request.
+     */
+    private void handlePacket(DatagramPacket requestPkt) throws IOException {
+        // A tag added by the router is echoed in front of the response, untouched.
+        byte[] data = requestPkt.getData();
+        int off = requestPkt.getOffset();
+        int len = requestPkt.getLength();
+        int tagLen = Protocol.tagLength(data, off, len);
+        int version = Protocol.binaryVersion(data, off + tagLen, len - tagLen);
 
-            System.out.println("[server.app] TX (string): " + responseStr);
-            Protocol.printBytes("[server.app] TX", responseBytes);
+        byte[] responseBytes;
+        if (version == 0) {
+            String tag = Protocol.fromBytes(data, off, tagLen);
+            String requestStr = Protocol.fromBytes(data, off + tagLen, len - tagLen);
+            responseBytes = Protocol.toBytes(tag + messageHandler(requestStr));
+        } else {
+            Protocol.Writer out = new Protocol.Writer().put(data, off, tagLen);
+            if (version == Protocol.BINARY_V1) {
+                binaryHandler(new Protocol.Reader(data, off + tagLen + 1, len - tagLen - 1), out);
+            } else {
+                // A version we do not speak: answer in text, naming the one we do.
+                byte[] error = Protocol.toBytes(Protocol.buildResponse(ResponseType.ERROR,
+                        "UNSUPPORTED_VERSION", String.valueOf(Protocol.BINARY_V1)));
+                out.put(error, 0, error.length);
+            }
+            responseBytes = out.toByteArray();
+        }
+        DatagramPacket responsePkt = new DatagramPacket(
+                responseBytes, responseBytes.length,
+                requestPkt.getAddress(), requestPkt.getPort()
+        );
 
-            socket.send(responsePkt);
+        if (verbose) {
+            // One block per request, so output from concurrent workers does not interleave.
+            synchronized (System.out) {
+                System.out.println("\n[server.app] RX from router " + requestPkt.getAddress() + ":" + requestPkt.getPort());
+                Protocol.printPacket("[server.app] RX", requestPkt);
+                Protocol.printPacket("[server.app] TX", responseBytes, 0, responseBytes.length);
+            }
         }
+
+        socket.send(responsePkt);
     }
 
     // --- REQUEST HANDLERS ---
@@ -79,6 +188,8 @@ public class Server {
                     return stateHandler();
                 case QUIT:
                     return quitHandler(parts);
+                case NEARBY:
+                    return nearbyHandler(parts);
                 default:
                     return Protocol.buildResponse(ResponseType.ERROR, "UNKNOWN_ACTION");
             }
@@ -87,6 +198,84 @@ public class Server {
         }
     }
 
+    /**
+     * Handles a binary request: the same actions as {@link #messageHandler}, with the
+     * fields read straight from the bytes instead of split and parsed as text.
+     *
+     * @param in  The request, positioned after the version byte.
+     * @param out The response so far (any tag); the binary response is appended.
+     */
+    public void binaryHandler(Protocol.Reader in, Protocol.Writer out) {
+        out.put(Protocol.BINARY_V1);
+        int mark = out.size();
+
+        RequestType type;
+        try {
+            type = RequestType.fromOpcode(in.get());
+        } catch (Exception e) {
+            out.put(ResponseType.ERROR.opcode()).putString("UNKNOWN_ACTION");
+            return;
+        }
+
+        try {
+            switch (type) {
+                case JOIN: {
+                    int playerId = state.addNewPlayer(in.string()).getId();
+                    out.put(ResponseType.JOINED.opcode()).putVarint(playerId);
+                    break;
+                }
+                case MOVE: {
+                    int playerId = in.varint();
+                    int dx = in.zigzag();
+                    int dy = in.zigzag();
+                    state.movePlayer(playerId, dx, dy);
+                    out.put(ResponseType.MOVE_OK.opcode());
+                    break;
+                }
+                case PICKUP: {
+                    int playerId = in.varint();
+                    if (!in.hasMore()) {
+                        int picked = state.processPickupHere(playerId);
+                        if (picked >= 0) {
+                            out.put(ResponseType.PICKUP_OK.opcode()).putVarint(picked);
+                        } else {
+                            out.put(ResponseType.PICKUP_FAIL.opcode());
+                        }
+                        break;
+                    }
+                    boolean ok = state.processPickup(playerId, in.varint());
+                    out.put((ok ? ResponseType.PICKUP_OK : ResponseType.PICKUP_FAIL).opcode());
+                    break;
+                }
+                case STATE:
+                    out.put(ResponseType.STATE_DATA.opcode());
+                    state.writeState(out);
+                    break;
+                case QUIT:
+                    if (in.hasMore()) {
+                        state.removePlayer(in.varint());
+                    }
+                    out.put(ResponseType.QUIT_OK.opcode());
+                    break;
+                case NEARBY: {
+                    int playerId = in.varint();
+                    int radius = in.varint();
+                    out.put(ResponseType.NEARBY_DATA.opcode());
+                    if (!state.writeNearby(playerId, radius, out)) {
+                        out.truncate(mark);
+                        out.put(ResponseType.ERROR.opcode()).putString("UNKNOWN_PLAYER");
+                    }
+                    break;
+                }
+                default:
+                    out.put(ResponseType.ERROR.opcode()).putString("UNKNOWN_ACTION");
+            }
+        } catch (Exception e) {
+            out.truncate(mark);
+            out.put(ResponseType.ERROR.opcode()).putString(e.getClass().getSimpleName());
+        }
+    }
+
     private String joinHandler(String[] parts) {
         if (parts.length < 2) return Protocol.buildResponse(ResponseType.ERROR, "JOIN_FORMAT");
 
@@ -108,9 +297,16 @@ public class Server {
     }
 
     private String pickupHandler(String[] parts) {
-        if (parts.length < 3) return Protocol.buildResponse(ResponseType.ERROR, "PICKUP_FORMAT");
+        if (parts.length < 2) return Protocol.buildResponse(ResponseType.ERROR, "PICKUP_FORMAT");
 
         int playerId = Integer.parseInt(parts[1]);
+        if (parts.length == 2) {
+            // No loot id: pick up whatever lies at the player's position.
+            int picked = state.processPickupHere(playerId);
+            return picked >= 0
+                    ? Protocol.buildResponse(ResponseType.PICKUP_OK, String.valueOf(picked))
+                    : ResponseType.PICKUP_FAIL.wireToken();
+        }
         int lootId = Integer.parseInt(parts[2]);
 
         boolean ok = state.processPickup(playerId, lootId);
@@ -121,7 +317,22 @@ public class Server {
         return state.serialize();
     }
 
+    private String nearbyHandler(String[] parts) {
+        if (parts.length < 3) return Protocol.buildResponse(ResponseType.ERROR, "NEARBY_FORMAT");
+
+        int playerId = Integer.parseInt(parts[1]);
+        int radius = Integer.parseInt(parts[2]);
+
+        String nearby = state.serializeNearby(playerId, radius);
+        return nearby != null
+                ? Protocol.buildResponse(ResponseType.NEARBY_DATA, nearby)
+                : Protocol.buildResponse(ResponseType.ERROR, "UNKNOWN_PLAYER");
+    }
+
     private String quitHandler(String[] parts) {
+        if (parts.length >= 2) {
+            state.removePlayer(Integer.parseInt(parts[1]));
+        }
         return ResponseType.QUIT_OK.wireToken();
     }
 }
\ No newline at end of file
@@ -0,0 +1,273 @@
+import java.util.Arrays;
+
+/**
+ * Uniform-grid spatial index of entity IDs by position.
+ *
+ * The world is cut into square cells of {@code cellSize} units. Cells are not
+ * allocated per coordinate; they are hashed onto a fixed table of buckets, so the
+ * world may be unbounded and the memory use stays fixed. Each bucket stores the ID
+ * and position of its entities, which lets queries filter out other cells that
+ * hash to the same bucket without touching the entities themselves. A cell
+ * lookup or a radius query therefore costs the number of cells covered times their
+ * occupancy, independent of world size or entity count.
+ *
+ * Every bucket is its own lock, so updates in different parts of the map (e.g.
+ * concurrent moves) do not contend. A move between buckets locks both in index
+ * order. The grid never calls out while holding a bucket, so callers may update it
+ * under their own locks (GameState moves a player under the player's monitor).
+ */
+public class SpatialGrid {
+
+    private final int cellSize;
+    private final Bucket[] buckets;
+    private final int mask;
+
+    /**
+     * Constructs an empty grid.
+     *
+     * @param cellSize    Width and height of a cell, in world units.
+     * @param bucketCount Number of hash buckets (rounded up to a power of two).
+     */
+    public SpatialGrid(int cellSize, int bucketCount) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cellSize must be > 0");
+        }
+        int n = Integer.highestOneBit(Math.max(1, bucketCount - 1)) << 1;
+        this.cellSize = cellSize;
+        this.buckets = new Bucket[n];
+        this.mask = n - 1;
+        for (int i = 0; i < n; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Adds an entity at a position.
+     *
+     * @param id The entity ID.
+     * @param x  The x-coordinate.
+     * @param y  The y-coordinate.
+     */
+    public void insert(int id, int x, int y) {
+        Bucket b = bucketOf(x, y);
+        synchronized (b) {
+            b.add(id, x, y);
+        }
+    }
+
+    /**
+     * Removes an entity from the position it was inserted or last moved to.
+     *
+     * @param id The entity ID.
+     * @param x  The entity's current x-coordinate.
+     * @param y  The entity's current y-coordinate.
+     * @return true if the entity was found there.
+     */
+    public boolean remove(int id, int x, int y) {
+        Bucket b = bucketOf(x, y);
+        synchronized (b) {
+            return b.remove(id);
+        }
+    }
+
+    /**
+     * Moves an entity; only the buckets of its old and new cell are touched.
+     *
+     * @param id   The entity ID.
+     * @param oldX The x-coordinate it was indexed at.
+     * @param oldY The y-coordinate it was indexed at.
+     * @param newX The new x-coordinate.
+     * @param newY The new y-coordinate.
+     */
+    public void move(int id, int oldX, int oldY, int newX, int newY) {
+        int from = bucketIndex(Math.floorDiv(oldX, cellSize), Math.floorDiv(oldY, cellSize));
+        int to = bucketIndex(Math.floorDiv(newX, cellSize), Math.floorDiv(newY, cellSize));
+        if (from == to) {
+            Bucket b = buckets[from];
+            synchronized (b) {
+                b.update(id, newX, newY);
+            }
+            return;
+        }
+        // Lock in index order so two opposite moves cannot deadlock.
+        Bucket first = buckets[Math.min(from, to)];
+        Bucket second = buckets[Math.max(from, to)];
+        synchronized (first) {
+            synchronized (second) {
+                buckets[from].remove(id);
+                buckets[to].add(id, newX, newY);
+            }
+        }
+    }
+
+    /**
+     * Returns the entities standing exactly on a position.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return The IDs found (possibly empty).
+     */
+    public int[] at(int x, int y) {
+        IdList out = new IdList();
+        Bucket b = bucketOf(x, y);
+        synchronized (b) {
+            for (int i = 0; i < b.size; i++) {
+                if (b.xs[i] == x && b.ys[i] == y) out.add(b.ids[i]);
+            }
+        }
+        return out.toArray();
+    }
+
+    /**
+     * Returns the entities in the cell containing a position.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return The IDs found (possibly empty).
+     */
+    public int[] cell(int x, int y) {
+        IdList out = new IdList();
+        int cx = Math.floorDiv(x, cellSize);
+        int cy = Math.floorDiv(y, cellSize);
+        collectCell(cx, cy, x, y, -1, out);
+        return out.toArray();
+    }
+
+    /**
+     * Returns the entities within a Euclidean distance of a position.
+     *
+     * @param x      The x-coordinate of the centre.
+     * @param y      The y-coordinate of the centre.
+     * @param radius The maximum distance (inclusive).
+     * @return The IDs found (possibly empty), in no particular order.
+     */
+    public int[] within(int x, int y, int radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("radius must be >= 0");
+        }
+        long r2 = (long) radius * radius;
+        // Bounds in long: x +/- radius may not fit in an int. Cells past the int range hold nothing.
+        long minCx = Math.max(Math.floorDiv(x - (long) radius, cellSize), Math.floorDiv(Integer.MIN_VALUE, cellSize));
+        long maxCx = Math.min(Math.floorDiv(x + (long) radius, cellSize), Math.floorDiv(Integer.MAX_VALUE, cellSize));
+        long minCy = Math.max(Math.floorDiv(y - (long) radius, cellSize), Math.floorDiv(Integer.MIN_VALUE, cellSize));
+        long maxCy = Math.min(Math.floorDiv(y + (long) radius, cellSize), Math.floorDiv(Integer.MAX_VALUE, cellSize));
+        IdList out = new IdList();
+        long cols = maxCx - minCx + 1, rows = maxCy - minCy + 1;
+        if (cols > buckets.length || rows > buckets.length || cols * rows > buckets.length) {
+            // Wider than the table: every bucket once is cheaper than every cell.
+            for (Bucket b : buckets) {
+                synchronized (b) {
+                    for (int i = 0; i < b.size; i++) {
+                        if (distance2(b.xs[i], b.ys[i], x, y) <= r2) out.add(b.ids[i]);
+                    }
+                }
+            }
+            return out.toArray();
+        }
+        for (long cx = minCx; cx <= maxCx; cx++) {
+            for (long cy = minCy; cy <= maxCy; cy++) {
+                collectCell((int) cx, (int) cy, x, y, r2, out);
+            }
+        }
+        return out.toArray();
+    }
+
+    /**
+     * Adds the entities of one cell, optionally within r2 of (x, y). Entries of
+     * other cells sharing the bucket are skipped, so no ID is reported twice.
+     */
+    private void collectCell(int cx, int cy, int x, int y, long r2, IdList out) {
+        Bucket b = buckets[bucketIndex(cx, cy)];
+        synchronized (b) {
+            for (int i = 0; i < b.size; i++) {
+                int ex = b.xs[i], ey = b.ys[i];
+                if (Math.floorDiv(ex, cellSize) != cx || Math.floorDiv(ey, cellSize) != cy) continue;
+                if (r2 >= 0 && distance2(ex, ey, x, y) > r2) continue;
+                out.add(b.ids[i]);
+            }
+        }
+    }
+
+    /**
+     * Squared distance, saturated at Long.MAX_VALUE. An axis gap beyond Integer.MAX_VALUE
+     * is out of reach of any int radius, and below it the sum of squares fits in a long.
+     */
+    private static long distance2(int ax, int ay, int bx, int by) {
+        long dx = Math.abs((long) ax - bx), dy = Math.abs((long) ay - by);
+        if (dx > Integer.MAX_VALUE || dy > Integer.MAX_VALUE) return Long.MAX_VALUE;
+        return dx * dx + dy * dy;
+    }
+
+    private Bucket bucketOf(int x, int y) {
+        return buckets[bucketIndex(Math.floorDiv(x, cellSize), Math.floorDiv(y, cellSize))];
+    }
+
+    /** Spatial hash of a cell (large primes, XOR-combined). */
+    private int bucketIndex(int cx, int cy) {
+        int h = (cx * 73856093) ^ (cy * 19349663);
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * The entities whose cells hash to one bucket; guarded by its own monitor.
+     */
+    private static final class Bucket {
+        int[] ids = new int[4];
+        int[] xs = new int[4];
+        int[] ys = new int[4];
+        int size;
+
+        void add(int id, int x, int y) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                xs = Arrays.copyOf(xs, size * 2);
+                ys = Arrays.copyOf(ys, size * 2);
+            }
+            ids[size] = id;
+            xs[size] = x;
+            ys[size] = y;
+            size++;
+        }
+
+        boolean remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    xs[i] = xs[size];
+                    ys[i] = ys[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void update(int id, int x, int y) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    xs[i] = x;
+                    ys[i] = y;
+                    return;
+                }
+            }
+            add(id, x, y);
+        }
+    }
+
+    /**
+     * Growable list of IDs for query results.
+     */
+    private static final class IdList {
+        int[] ids = new int[8];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -1,7 +1,7 @@
 /**
  * This class is for the Agent in this drone assembly system.
  * The Agent selects two random components and places them on the common table.
- * The Agent will repeat this procedure until 20 drones are assembled in total
+ * The Agent will repeat this procedure until the table's quota of drones is assembled in total
  *
  * @author Dr. Rami Sabouni,
  * Systems and Computer Engineering,
@@ -29,7 +29,7 @@ public class Agent implements Runnable {
     public void run(){
         Components components1, components2;
         System.out.println("[" + Thread.currentThread().getName() + "] Waiting to place first components on the table...");
-        while (this.assemblyTable.getDronesAssembled() != 20){   //Will loop until 20 drones have been assembled
+        while (!this.assemblyTable.isDone()){   //Will loop until the quota of drones has been assembled
             //Randomly selects two different components
             components1 = Components.getRandomComponent();
             components2 = Components.getRandomComponent();
@@ -37,12 +37,12 @@ public class Agent implements Runnable {
                 components2 = Components.getRandomComponent();
             }
             this.assemblyTable.addComponents(components1, components2);    //Places the two selected components on the table
-            // Sleep for between 0 and 5 seconds before calculating n!
-            try {
-                Thread.sleep((int)(Math.random() * 3000));
-            } catch (InterruptedException e) {}
+            // Pause for between 0 and 3 seconds; wakes at once if the quota is reached meanwhile
+            if (this.assemblyTable.pauseUnlessDone(3000)) {
+                break;
+            }
         }
         //All drones have been assembled
-        System.out.println("[" + Thread.currentThread().getName() + "] 20 drones assembled, ending...");
+        System.out.println("[" + Thread.currentThread().getName() + "] " + this.assemblyTable.getQuota() + " drones assembled, ending...");
     }
 }
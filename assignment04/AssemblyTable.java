@@ -1,10 +1,18 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 /**
  * This class is for the assembly table in this Autonomous Drone Assembly Line.
  * The table serves as a common place where components are placed by the agent and taken by the technician.
  * The table accepts components from the Agent and notifies all technicians that they are available.
  * The table determines when each technician is allowed to take the components, based on what their missing components are.
  * The table lets the right Technician assemble a drone, then notifies the Agent that the table is empty.
- * The table will allow components to be placed and taken until 20 drones are assembled.
+ * The table will allow components to be placed and taken until the quota of drones (20 by default) is assembled.
+ * Reaching the quota counts down a latch, which wakes every participant at once, however long it meant to sleep.
+ * A restructured table keeps the simulated delays and console output outside the table lock, and a LockProfiler
+ * can record how long each thread waited for, and held, the lock in every critical section.
+ * A table with more than one slot is restructured by default: while one Technician assembles, the Agent and the
+ * other Technicians can use the table, so extra slots add throughput rather than only staging room.
  *
  *
  * @author Dr. Rami Sabouni,
@@ -14,43 +22,118 @@
  * @version 2.0, January 10th, 2026
  */
 public class AssemblyTable {
-    private final int SIZE = 2;                                 //Capacity of table
-    private Components[] components = new Components[SIZE];     //List of components on the table
-    private boolean tableFull = false;                          //True if there is at least 1 component on the table
+    public static final int DEFAULT_QUOTA = 20;                 //Drones assembled when no quota is given
+    private final int SIZE = 2;                                 //Components per slot (one pair)
+    private final Components[][] slots;                         //Ring buffer of component pairs on the table
+    private int head = 0;                                       //Index of the oldest pair on the table
+    private int pairsOnTable = 0;                               //Number of pairs waiting to be taken
+    private int pairsPlaced = 0;                                //Running total of pairs placed (never more than the quota)
     private int dronesMade = 0;                                  //Running total of drones assembled
+    private final int quota;                                    //Number of drones to assemble
+    private final CountDownLatch finished = new CountDownLatch(1); //Opened when the quota is reached
+    private volatile long finishedAt;                           //System.nanoTime() when the quota was reached
+    private volatile double delayScale = 1.0;                   //Multiplier for every simulated delay (0 for none)
+    private volatile boolean quiet = false;                     //True to suppress the per-drone console output
+    private final boolean delaysOutsideLock;                    //True if the simulated delays and printing happen outside the lock
+    private final LockProfiler profiler;                        //Records lock wait and hold times (DISABLED by default)
+
+    /**
+     * Constructor for a single-slot table (one pair at a time)
+     */
+    public AssemblyTable() {
+        this(1);
+    }
+
+    /**
+     * Constructor for a table that can hold several pairs at once, so the Agent can keep placing while Technicians work.
+     * With more than one slot the simulated delays happen outside the table lock, so Technicians overlap
+     *
+     * @param slotCount     Number of component pairs the table can hold
+     */
+    public AssemblyTable(int slotCount) {
+        this(slotCount, slotCount > 1, LockProfiler.DISABLED);
+    }
+
+    /**
+     * Constructor for a profiled and/or restructured table
+     *
+     * @param slotCount         Number of component pairs the table can hold
+     * @param delaysOutsideLock True to simulate delays and print outside the table lock (restructured table)
+     * @param profiler          Profiler recording lock wait and hold times
+     */
+    public AssemblyTable(int slotCount, boolean delaysOutsideLock, LockProfiler profiler) {
+        this(slotCount, DEFAULT_QUOTA, delaysOutsideLock, profiler);
+    }
+
+    /**
+     * Constructor for a table with its own quota
+     *
+     * @param slotCount         Number of component pairs the table can hold
+     * @param quota             Number of drones to assemble
+     * @param delaysOutsideLock True to simulate delays and print outside the table lock (restructured table)
+     * @param profiler          Profiler recording lock wait and hold times
+     */
+    public AssemblyTable(int slotCount, int quota, boolean delaysOutsideLock, LockProfiler profiler) {
+        if (slotCount <= 0) {
+            throw new IllegalArgumentException("slotCount must be > 0");
+        }
+        if (quota <= 0) {
+            throw new IllegalArgumentException("quota must be > 0");
+        }
+        this.slots = new Components[slotCount][SIZE];
+        this.quota = quota;
+        this.delaysOutsideLock = delaysOutsideLock;
+        this.profiler = profiler;
+    }
 
     /**
-     * Method used to allow an Agent to place components on the table when table is empty
+     * Method used to allow an Agent to place components on the table when a slot is free
      * @param components1   First component to be placed by Agent
      * @param components2   Second component to be placed by Agent
      */
-    public synchronized void addComponents(Components components1, Components components2) {
-        while (tableFull) { //Makes agent wait until table is empty to place components
-            if (this.dronesMade == 20){ //Will exit if no more drones are required to be assembled
-                return;
-            }
-            try {
-                wait(); //Tells agent to wait until notified
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }
-        if (this.dronesMade == 20){ //Will exit if no more drones are required to be assembled
-            return;
+    public void addComponents(Components components1, Components components2) {
+        String message;
+        if (delaysOutsideLock) {
+            randomDelay(1000);  //Random delay to simulate real scenario, before taking the table lock
         }
+        long requested = profiler.now();
+        synchronized (this) {
+            profiler.acquired("addComponents", requested);
+            try {
+                while (pairsOnTable == slots.length || pairsPlaced == quota) { //Makes agent wait until a slot is free (backpressure), or until the last placed pairs are assembled
+                    if (isDone()){ //Will exit if no more drones are required to be assembled
+                        return;
+                    }
+                    try {
+                        profiledWait("addComponents"); //Tells agent to wait until notified
+                    } catch (InterruptedException e) {
+                        e.printStackTrace();
+                    }
+                }
 
-        //Components are placed on table
-        components[0] = components1;
-        components[1] = components2;
+                //Components are placed in the next free slot
+                Components[] slot = slots[(head + pairsOnTable) % slots.length];
+                slot[0] = components1;
+                slot[1] = components2;
 
-        // Random delay to simulate real scenario
-        try {
-            Thread.sleep((int)(Math.random() * 1000));
-        } catch (InterruptedException e) {}
+                if (!delaysOutsideLock) {
+                    randomDelay(1000);  //Random delay to simulate real scenario (original table: while holding the lock)
+                }
 
-        tableFull = true;   //Table is now full
-        System.out.println("[" + Thread.currentThread().getName() + "] " + components1.toString() + " and " + components2.toString() + " placed on the table.");
-        notifyAll();    //Notify all Technicians that table is full
+                pairsOnTable++;     //One more pair waiting on the table
+                pairsPlaced++;
+                message = "[" + Thread.currentThread().getName() + "] " + components1.toString() + " and " + components2.toString() + " placed on the table.";
+                if (!delaysOutsideLock) {
+                    log(message);
+                }
+                notifyAll();    //Notify all Technicians that a pair is available
+            } finally {
+                profiler.released("addComponents");
+            }
+        }
+        if (delaysOutsideLock) {
+            log(message);   //Printed after releasing the lock; the state change above is already visible
+        }
     }
 
     /**
@@ -58,46 +141,223 @@ public class AssemblyTable {
      *
      * @param components    The component the Technician has an infinite supply of (Used to determine if Technician is eligible to take the components on the table)
      */
-    public synchronized void getComponents(Components components)
+    public void getComponents(Components components)
     {
-        while (!tableFull || componentsContains(components)) { //Makes Technician wait until the table is full and until the two required components from the Agent is available
-            if (this.dronesMade == 20){ //If 20 drones have been assembled, do not assemble another
-                return;
+        String message;
+        long requested = profiler.now();
+        synchronized (this) {
+            profiler.acquired("getComponents", requested);
+            try {
+                int offset;
+                while ((offset = oldestPairMissing(components)) < 0) { //Makes Technician wait until a pair with the two required components from the Agent is available
+                    if (isDone()){ //If the quota has been assembled, do not assemble another
+                        return;
+                    }
+                    try {
+                        profiledWait("getComponents"); //Make the Technician wait until notified that new components are available
+                    } catch (InterruptedException e) {
+                        e.printStackTrace();
+                    }
+                }
+
+                this.dronesMade++;  //Increase running total of drones assembled
+                if (this.dronesMade == quota) {
+                    finishedAt = System.nanoTime();
+                    finished.countDown();   //Quota reached: wake everyone sleeping in pauseUnlessDone()
+                }
+                message = "[" + Thread.currentThread().getName() + "] Drone assembled.\n"
+                        + "[" + Thread.currentThread().getName() + "] Waiting for remaining components...\n"
+                        + "[Counter] Drones assembled: " + this.dronesMade + "\n"
+                        + "--------------------------------------------------------------";
+                if (!delaysOutsideLock) {
+                    log(message);
+                }
+                //Take the pair off the table, freeing its slot
+                removePair(offset);
+
+                if (!delaysOutsideLock && !isDone()) {   //The last drone releases everyone at once, without the delay
+                    randomDelay(1000);  //Random delay to simulate real scenario (original table: while holding the lock)
+                }
+
+                notifyAll();    //Notify Technicians and Agent that components have changed
+            } finally {
+                profiler.released("getComponents");
             }
+        }
+        if (delaysOutsideLock) {
+            log(message);                   //Printed after releasing the lock
+            randomDelay(1000);              //Random delay to simulate real scenario, after releasing the table lock
+        }
+    }
+
+    /**
+     * Method used to wait on the table while telling the profiler that the lock is released meanwhile
+     *
+     * @param section       Name of the critical section that waits
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private void profiledWait(String section) throws InterruptedException {
+        profiler.suspended(section);
+        try {
+            wait();
+        } finally {
+            profiler.resumed(section);
+        }
+    }
+
+    /**
+     * Method used to sleep for a random time to simulate a real scenario.
+     * Waits on the completion latch rather than sleeping, so the delay ends the moment the quota is reached
+     *
+     * @param maxMillis     Upper bound of the delay
+     */
+    private void randomDelay(int maxMillis) {
+        long millis = (long)(Math.random() * maxMillis * delayScale);
+        if (millis > 0) {
             try {
-                wait(); //Make the Technician wait until notified that new components are available
+                finished.await(millis, TimeUnit.MILLISECONDS);
             } catch (InterruptedException e) {
-                e.printStackTrace();
+                Thread.currentThread().interrupt();     //Keep the interrupt for the caller's loop
             }
         }
+    }
 
-        System.out.println("[" + Thread.currentThread().getName() + "] Drone assembled.");
-        System.out.println("[" + Thread.currentThread().getName() + "] Waiting for remaining components...");
-        this.dronesMade++;  //Increase running total of drones assembled
-        System.out.println("[Counter] Drones assembled: " + this.dronesMade);
-        System.out.println("--------------------------------------------------------------");
-        //Clear components and set table to empty
-        this.components[0] = null;
-        this.components[1] = null;
-        tableFull = false;
-
-        // Random delay to simulate real scenario
+    /**
+     * Method used by the Agent and Technicians to pause for a random time between their turns at the table.
+     * Unlike Thread.sleep, the pause ends the moment the quota is reached
+     *
+     * @param maxMillis     Upper bound of the pause (before scaling)
+     * @return True if the quota has been reached, false otherwise
+     */
+    public boolean pauseUnlessDone(int maxMillis) {
+        long millis = (long)(Math.random() * maxMillis * delayScale);
         try {
-            Thread.sleep((int)(Math.random() * 1000));
-        } catch (InterruptedException e) {}
+            return finished.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;    //Treat an interrupt as a request to stop
+        }
+    }
 
-        notifyAll();    //Notify Technicians and Agent that components have changed
+    /**
+     * Method used to check if the quota has been assembled; safe to call without the table lock
+     *
+     * @return True if the quota has been reached
+     */
+    public boolean isDone() {
+        return finished.getCount() == 0;
+    }
+
+    /**
+     * Method used to wait until the quota has been assembled
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitDone() throws InterruptedException {
+        finished.await();
+    }
+
+    /**
+     * Method used to wait a limited time for the quota to be assembled
+     *
+     * @param millis    Longest time to wait
+     * @return True if the quota has been reached
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitDone(long millis) throws InterruptedException {
+        return finished.await(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Method used to print one line of the trace, unless the table is quiet
+     *
+     * @param message   Line(s) to print
+     */
+    private void log(String message) {
+        if (!quiet) {
+            System.out.println(message);
+        }
     }
 
     /**
-     * Method used to check if the component given is one of the two components on the table
+     * Setter method for the delay scale (1 = original delays, 0 = no delays)
      *
-     * @param components    Component from Technician (used to check if Technician can accept the components on the table)
-     * @return True if component is on the table, false otherwise
+     * @param delayScale    Multiplier for every simulated delay
      */
-    private boolean componentsContains (Components components){
-        //If there are no components on the table, or one of the components on the table is the same as the component given from the Technician, return True; false otherwise
-        return (this.components[0] == null || this.components[1] == null || (this.components[0] == components || this.components[1] == components));
+    public void setDelayScale(double delayScale) {
+        this.delayScale = delayScale;
+    }
+
+    /**
+     * Setter method for quiet mode
+     *
+     * @param quiet     True to suppress the per-drone console output
+     */
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    /**
+     * Getter method for the quota
+     *
+     * @return quota
+     */
+    public int getQuota() {
+        return quota;
+    }
+
+    /**
+     * Getter method for the time the quota was reached
+     *
+     * @return System.nanoTime() when the last drone was assembled, or 0 if not yet
+     */
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Method used to check if the component given is one of the two components in a slot
+     *
+     * @param slot          Pair of components in one slot of the table
+     * @param components    Component from Technician (used to check if Technician can accept the components in the slot)
+     * @return True if component is in the slot, false otherwise
+     */
+    private boolean componentsContains (Components[] slot, Components components){
+        //If the slot is empty, or one of the components in the slot is the same as the component given from the Technician, return True; false otherwise
+        return (slot[0] == null || slot[1] == null || (slot[0] == components || slot[1] == components));
+    }
+
+    /**
+     * Method used to find the oldest pair on the table that the Technician can use
+     *
+     * @param components    Component from Technician
+     * @return Offset (from the oldest pair) of the first pair missing the given component, or -1 if there is none
+     */
+    private int oldestPairMissing (Components components){
+        for (int i = 0; i < pairsOnTable; i++) {
+            if (!componentsContains(slots[(head + i) % slots.length], components)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Method used to take a pair off the table; younger pairs keep their order
+     *
+     * @param offset    Offset (from the oldest pair) of the pair to remove
+     */
+    private void removePair (int offset){
+        for (int i = offset; i > 0; i--) {  //Shift older pairs up by one so the freed slot ends up at head
+            Components[] to = slots[(head + i) % slots.length];
+            Components[] from = slots[(head + i - 1) % slots.length];
+            to[0] = from[0];
+            to[1] = from[1];
+        }
+        slots[head][0] = null;
+        slots[head][1] = null;
+        head = (head + 1) % slots.length;
+        pairsOnTable--;
     }
 
     /**
@@ -105,7 +365,7 @@ public class AssemblyTable {
      *
      * @return dronesMade
      */
-    public int getDronesAssembled(){
+    public synchronized int getDronesAssembled(){
         return this.dronesMade;
     }
 
@@ -122,15 +382,94 @@ public class AssemblyTable {
 
     /**
      * Method used to run the program. The program creates all threads and starts them
+     * Options (any order):
+     *  N                   number of slots on the table (default 1)
+     *  --drones=N          quota of drones to assemble (default 20)
+     *  --restructured      keep the simulated delays and printing outside the table lock (default with N > 1)
+     *  --original          keep the simulated delays and printing inside the table lock (default with N = 1)
+     *  --profile           record lock wait/hold times and print the contention report at the end
+     *  --compare           profile the original table, then the restructured one, and compare the time the lock was held
+     *  --csv=FILE          also export the (last) contention report as CSV
+     *  --seed=N            seed the component draws so every run places the same pairs
+     *  --delay-scale=X     multiply every simulated delay by X (0 = no delays)
+     *  --quiet             do not print every placement and drone
+     *  --soak              long run: 1,000,000 drones (unless --drones is given), no delays, quiet,
+     *                      reporting throughput every second and the shutdown latency at the end
      *
-     * @param args
+     * @param args  Options as above
      */
     public static void main (String[] args){
+        int slotCount = 1;                  //Pairs the table can hold
+        Integer quota = null;               //Drones to assemble (default depends on the mode)
+        Boolean restructured = null;        //Delays and printing outside the lock (default depends on the slot count)
+        boolean profile = false;            //Record and report lock times
+        boolean compare = false;            //Run both tables and compare
+        boolean soak = false;               //Long throughput run
+        Double delayScale = null;           //Multiplier for the simulated delays (default depends on the mode)
+        boolean quiet = false;              //Suppress the per-drone output
+        String csv = null;                  //CSV export file
+        for (String arg : args) {
+            if (arg.equals("--restructured")) {
+                restructured = true;
+            } else if (arg.equals("--original")) {
+                restructured = false;
+            } else if (arg.equals("--profile")) {
+                profile = true;
+            } else if (arg.equals("--compare")) {
+                compare = true;
+            } else if (arg.equals("--soak")) {
+                soak = true;
+            } else if (arg.equals("--quiet")) {
+                quiet = true;
+            } else if (arg.startsWith("--drones=")) {
+                quota = Integer.parseInt(arg.substring("--drones=".length()));
+            } else if (arg.startsWith("--delay-scale=")) {
+                delayScale = Double.parseDouble(arg.substring("--delay-scale=".length()));
+            } else if (arg.startsWith("--csv=")) {
+                csv = arg.substring("--csv=".length());
+            } else if (arg.startsWith("--seed=")) {
+                Components.setSeed(Long.parseLong(arg.substring("--seed=".length())));
+            } else {
+                slotCount = Integer.parseInt(arg);
+            }
+        }
+
+        if (restructured == null) {
+            restructured = slotCount > 1;   //One slot: the original table. More: Technicians must not hold the lock while assembling
+        }
+
+        if (soak) {
+            AssemblyTable table = new AssemblyTable(slotCount, quota != null ? quota : 1_000_000, restructured, LockProfiler.DISABLED);
+            table.setDelayScale(delayScale != null ? delayScale : 0);
+            table.setQuiet(true);
+            runSoak(table);
+            return;
+        }
+        int drones = quota != null ? quota : DEFAULT_QUOTA;
+        double scale = delayScale != null ? delayScale : 1.0;
+        if (compare) {
+            LockProfiler original = runProfiled(newTable(slotCount, drones, false, scale, quiet), null);
+            LockProfiler fixed = runProfiled(newTable(slotCount, drones, true, scale, quiet), csv);
+            long before = original.getTotalHeldNanos();
+            long after = fixed.getTotalHeldNanos();
+            System.out.println("==============================================================");
+            System.out.printf("Lock held:      %.1f ms (original) -> %.1f ms (restructured), %.1f%% less%n",
+                    before / 1e6, after / 1e6, 100.0 * (before - after) / Math.max(1, before));
+            System.out.printf("Waiting to enter: %.1f ms (original) -> %.1f ms (restructured)%n",
+                    original.getTotalEnterWaitNanos() / 1e6, fixed.getTotalEnterWaitNanos() / 1e6);
+            return;
+        }
+        if (profile) {
+            runProfiled(newTable(slotCount, drones, restructured, scale, quiet), csv);
+            return;
+        }
 
         Thread TechnicianFrame, TechnicianPropulsion, TechnicianControl, agent;  //Threads for each Technician and the Agent
         AssemblyTable assemblyTable;                                            //Table
 
-        assemblyTable = new AssemblyTable();                                                //Common Table for all Technicians and Agent
+        assemblyTable = new AssemblyTable(slotCount, drones, restructured, LockProfiler.DISABLED); //Common Table for all Technicians and Agent
+        assemblyTable.setDelayScale(scale);
+        assemblyTable.setQuiet(quiet);
         agent = new Thread(new Agent(assemblyTable), "Agent");                //Agent thread created
         TechnicianFrame = makeNewTechnician(assemblyTable, Components.Frame);             //Beans Technician created
         TechnicianPropulsion = makeNewTechnician(assemblyTable, Components.PropulsionUnit);             //Water Technician created
@@ -142,4 +481,124 @@ public class AssemblyTable {
         TechnicianControl.start();
         agent.start();
     }
+
+    /**
+     * Method used to create a profiled table
+     *
+     * @param slotCount     Number of slots on the table
+     * @param quota         Number of drones to assemble
+     * @param restructured  True to keep delays and printing outside the lock
+     * @param delayScale    Multiplier for every simulated delay
+     * @param quiet         True to suppress the per-drone output
+     * @return The new table, with its own LockProfiler
+     */
+    private static AssemblyTable newTable(int slotCount, int quota, boolean restructured, double delayScale, boolean quiet) {
+        AssemblyTable table = new AssemblyTable(slotCount, quota, restructured, new LockProfiler());
+        table.setDelayScale(delayScale);
+        table.setQuiet(quiet);
+        return table;
+    }
+
+    /**
+     * Method used to create the Agent and Technician threads for a table
+     *
+     * @param table     Common table
+     * @return The three Technician threads followed by the Agent thread (not started)
+     */
+    private static Thread[] makeThreads(AssemblyTable table) {
+        return new Thread[] {
+                makeNewTechnician(table, Components.Frame),
+                makeNewTechnician(table, Components.PropulsionUnit),
+                makeNewTechnician(table, Components.ControlFirmware),
+                new Thread(new Agent(table), "Agent")
+        };
+    }
+
+    /**
+     * Method used to run one full assembly with a profiled table, wait for it to finish and print its contention report
+     *
+     * @param assemblyTable Table created by newTable()
+     * @param csv           File to export the report to, or null
+     * @return The profiler holding the recorded times
+     */
+    private static LockProfiler runProfiled(AssemblyTable assemblyTable, String csv) {
+        LockProfiler profiler = assemblyTable.profiler;
+        Thread[] threads = makeThreads(assemblyTable);
+        long start = System.nanoTime();
+        for (Thread t : threads) {
+            t.start();
+        }
+        try {
+            for (Thread t : threads) {  //Wait for every thread to finish before reporting
+                t.join();
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("==============================================================");
+        System.out.printf("Contention report (%s table, %d slot(s), %d drones in %.1f s), times in ms:%n",
+                assemblyTable.delaysOutsideLock ? "restructured" : "original", assemblyTable.slots.length,
+                assemblyTable.getDronesAssembled(), seconds);
+        profiler.report(System.out);
+        if (csv != null) {
+            try {
+                profiler.exportCsv(java.nio.file.Paths.get(csv));
+                System.out.println("Report exported to " + csv);
+            } catch (java.io.IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return profiler;
+    }
+
+    /**
+     * Method used for the soak run: assembles the whole quota, printing the throughput of every second,
+     * then reports the sustained throughput and how long the threads took to stop once the quota was reached
+     *
+     * @param table     Quiet table with the soak quota
+     */
+    private static void runSoak(AssemblyTable table) {
+        System.out.println("[Soak] " + table.getQuota() + " drones, " + table.slots.length + " slot(s), "
+                + (table.delaysOutsideLock ? "restructured" : "original") + " table");
+        Thread[] threads = makeThreads(table);
+        long start = System.nanoTime();
+        for (Thread t : threads) {
+            t.start();
+        }
+        int last = 0;                       //Drones assembled at the previous report
+        long lastTime = start;              //Time of the previous report
+        double minRate = Double.MAX_VALUE;  //Slowest full second
+        double maxRate = 0;                 //Fastest full second
+        try {
+            while (!table.awaitDone(1000)) {    //Report once per second until the quota is reached
+                long now = System.nanoTime();
+                int made = table.getDronesAssembled();
+                double rate = (made - last) / ((now - lastTime) / 1e9);
+                minRate = Math.min(minRate, rate);
+                maxRate = Math.max(maxRate, rate);
+                System.out.printf("[Soak] %,d drones (%,.0f drones/s)%n", made, rate);
+                last = made;
+                lastTime = now;
+            }
+            for (Thread t : threads) {  //Every participant must notice the latch and stop
+                t.join();
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        long stopped = System.nanoTime();
+        double seconds = (table.getFinishedAt() - start) / 1e9;
+
+        System.out.println("==============================================================");
+        System.out.printf("[Soak] %,d drones in %.2f s: %,.0f drones/s sustained", table.getDronesAssembled(), seconds,
+                table.getDronesAssembled() / seconds);
+        if (maxRate > 0) {
+            System.out.printf(" (per second: min %,.0f, max %,.0f)", minRate, maxRate);
+        }
+        System.out.println();
+        System.out.printf("[Soak] Shutdown latency (quota reached -> all threads stopped): %.3f ms%n",
+                (stopped - table.getFinishedAt()) / 1e6);
+    }
 }
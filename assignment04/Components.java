@@ -8,19 +8,41 @@
  * @version 2.0, January 10th, 2026
  */
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public enum Components {
     Frame,
     PropulsionUnit,
     ControlFirmware;
 
+    private static final Components[] VALUES = values();    //Cached, values() copies the array on every call
+    private static volatile Long seed = null;               //Seed for repeatable runs, null for a different run every time
+    private static final ThreadLocal<SplittableRandom> RANDOM = ThreadLocal.withInitial(Components::newGenerator); //One generator per thread, no sharing and no allocation per draw
+
+    /**
+     * Method used to make every thread's draws repeatable; call before any thread draws
+     *
+     * @param newSeed   Seed of the run (each thread's generator is derived from it and the thread's name)
+     */
+    public static void setSeed(long newSeed) {
+        seed = newSeed;
+    }
+
     /**
      * Pick a random value of the Components enum.
      * @return a random Component.
      */
     public static Components getRandomComponent() {
-        Random random = new Random();
-        return values()[random.nextInt(values().length)];
+        return VALUES[RANDOM.get().nextInt(VALUES.length)];
+    }
+
+    /**
+     * Method used to create the calling thread's generator
+     *
+     * @return A generator seeded from the run seed and the thread name, or an unseeded one
+     */
+    private static SplittableRandom newGenerator() {
+        Long s = seed;
+        return s == null ? new SplittableRandom() : new SplittableRandom(s * 31 + Thread.currentThread().getName().hashCode());
     }
 }
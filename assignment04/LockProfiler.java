@@ -0,0 +1,206 @@
+/**
+ * This class is a lock profiler for the AssemblyTable.
+ * For every critical section (one per synchronized method) and every thread it records:
+ *  - how long the thread waited to enter the table's monitor (lock contention),
+ *  - how long it held the monitor (excluding time released inside wait()),
+ *  - how long it spent inside wait() for a condition (including re-acquiring the monitor).
+ * The report can be printed to the console or exported as CSV.
+ *
+ * @version October 17, 2026
+ * @author Lavji, Fareen_543
+ */
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class LockProfiler {
+    public static final LockProfiler DISABLED = new LockProfiler(false);   //Profiler that records nothing (default for the table)
+
+    private final boolean enabled;                                          //True if this profiler records
+    private final Map<String, Stats> stats = new TreeMap<>();               //Statistics per section and per section/thread; guarded by this
+    private final ThreadLocal<long[]> open = ThreadLocal.withInitial(() -> new long[3]); //Per thread: {hold segment start, held so far, wait start}
+
+    /**
+     * Constructor for an enabled profiler
+     */
+    public LockProfiler() {
+        this(true);
+    }
+
+    /**
+     * Constructor for LockProfiler
+     *
+     * @param enabled   True to record, false for a profiler that does nothing
+     */
+    private LockProfiler(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Method used to take the timestamp just before a thread asks for the monitor
+     *
+     * @return Current time in nanoseconds, or 0 if disabled
+     */
+    public long now() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Method used as the first statement inside the critical section
+     *
+     * @param section   Name of the critical section (the method name)
+     * @param requested Timestamp from now() taken before entering the monitor
+     */
+    public void acquired(String section, long requested) {
+        if (!enabled) return;
+        long t = System.nanoTime();
+        long[] o = open.get();
+        o[0] = t;   //Start of the first hold segment
+        o[1] = 0;   //Nothing held yet
+        record(section, t - requested, -1, 0);
+    }
+
+    /**
+     * Method used right before wait(): the monitor is released, so the hold segment ends
+     *
+     * @param section   Name of the critical section
+     */
+    public void suspended(String section) {
+        if (!enabled) return;
+        long t = System.nanoTime();
+        long[] o = open.get();
+        o[1] += t - o[0];   //Close the hold segment
+        o[2] = t;           //Start of the condition wait
+    }
+
+    /**
+     * Method used right after wait() returns: the monitor is held again
+     *
+     * @param section   Name of the critical section
+     */
+    public void resumed(String section) {
+        if (!enabled) return;
+        long t = System.nanoTime();
+        long[] o = open.get();
+        record(section, -1, -1, t - o[2]);  //Time spent in wait(), including re-acquiring the monitor
+        o[0] = t;                           //Start of the next hold segment
+    }
+
+    /**
+     * Method used as the last statement inside the critical section
+     *
+     * @param section   Name of the critical section
+     */
+    public void released(String section) {
+        if (!enabled) return;
+        long[] o = open.get();
+        record(section, -1, o[1] + System.nanoTime() - o[0], 0);
+    }
+
+    /**
+     * Method used to add one sample to the section total and to the section/thread row
+     *
+     * @param section   Name of the critical section
+     * @param enterWait Time waited to enter, or -1 if this is not an entry
+     * @param held      Total hold time of one call, or -1 if this is not a release
+     * @param condWait  Time spent in wait()
+     */
+    private synchronized void record(String section, long enterWait, long held, long condWait) {
+        String[] keys = {section, section + " / " + Thread.currentThread().getName()};
+        for (String key : keys) {
+            Stats s = stats.computeIfAbsent(key, k -> new Stats());
+            if (enterWait >= 0) {
+                s.calls++;
+                s.enterWait += enterWait;
+                s.maxEnterWait = Math.max(s.maxEnterWait, enterWait);
+            }
+            if (held >= 0) {
+                s.held += held;
+                s.maxHeld = Math.max(s.maxHeld, held);
+            }
+            s.condWait += condWait;
+        }
+    }
+
+    /**
+     * Getter method for the total time the monitor was held, over all sections
+     *
+     * @return Total hold time in nanoseconds
+     */
+    public synchronized long getTotalHeldNanos() {
+        long total = 0;
+        for (Map.Entry<String, Stats> e : stats.entrySet()) {
+            if (!e.getKey().contains(" / ")) {  //Only section totals, not the per thread rows
+                total += e.getValue().held;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Getter method for the total time threads waited to enter the monitor, over all sections
+     *
+     * @return Total entry wait in nanoseconds
+     */
+    public synchronized long getTotalEnterWaitNanos() {
+        long total = 0;
+        for (Map.Entry<String, Stats> e : stats.entrySet()) {
+            if (!e.getKey().contains(" / ")) {
+                total += e.getValue().enterWait;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Method used to print the contention report (times in milliseconds)
+     *
+     * @param out   Where to print the report
+     */
+    public synchronized void report(PrintStream out) {
+        out.printf("%-44s %6s %12s %12s %12s %12s %12s%n",
+                "section / thread", "calls", "enter avg", "enter max", "held avg", "held max", "in wait()");
+        for (Map.Entry<String, Stats> e : stats.entrySet()) {
+            Stats s = e.getValue();
+            long calls = Math.max(1, s.calls);
+            out.printf("%-44s %6d %12.1f %12.1f %12.1f %12.1f %12.1f%n", e.getKey(), s.calls,
+                    s.enterWait / 1e6 / calls, s.maxEnterWait / 1e6,
+                    s.held / 1e6 / calls, s.maxHeld / 1e6, s.condWait / 1e6);
+        }
+    }
+
+    /**
+     * Method used to export the report as CSV (times in nanoseconds)
+     *
+     * @param file  File to write
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void exportCsv(Path file) throws IOException {
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(file))) {
+            w.println("section,thread,calls,enter_wait_ns,enter_wait_max_ns,held_ns,held_max_ns,cond_wait_ns");
+            for (Map.Entry<String, Stats> e : stats.entrySet()) {
+                String[] parts = e.getKey().split(" / ", 2);
+                Stats s = e.getValue();
+                w.println(parts[0] + "," + (parts.length > 1 ? parts[1] : "*") + "," + s.calls + ","
+                        + s.enterWait + "," + s.maxEnterWait + "," + s.held + "," + s.maxHeld + "," + s.condWait);
+            }
+        }
+    }
+
+    /**
+     * Totals for one section, or one section/thread pair
+     */
+    private static class Stats {
+        long calls;         //Times the section was entered
+        long enterWait;     //Total time waited to enter
+        long maxEnterWait;  //Longest wait to enter
+        long held;          //Total time the monitor was held
+        long maxHeld;       //Longest hold in one call
+        long condWait;      //Total time spent in wait()
+    }
+}
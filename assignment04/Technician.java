@@ -2,7 +2,7 @@
  * This class is for the Technicians in this drone making system.
  * The Technician has an infinite supply of one of the three components.
  * The Technician will wait at the table until the other two components are placed, and will then make a drone and assemble it.
- * The Technician will repeat this procedure until 20 drones are assembled in total between all Technicians
+ * The Technician will repeat this procedure until the table's quota of drones is assembled in total between all Technicians
  *
  * @author Dr. Rami Sabouni,
  * Systems and Computer Engineering,
@@ -31,15 +31,15 @@ public class Technician implements Runnable {
      */
     public void run(){
         System.out.println("[" + Thread.currentThread().getName() + "] Waiting for remaining components...");
-        while (this.assemblyTable.getDronesAssembled() != 20){   //Will loop until 20 drones have been assembled
+        while (!this.assemblyTable.isDone()){   //Will loop until the quota of drones has been assembled
             this.assemblyTable.getComponents(this.components); //Attempts to obtain the missing components for the Technician (if obtained, drone is assembled)
-            // Sleep for a random time between 0 and 5 seconds to simulate assembly time
-            try {
-                Thread.sleep((int)(Math.random() * 5000));
-            } catch (InterruptedException e) {}
+            // Pause for a random time between 0 and 5 seconds to simulate assembly time; wakes at once if the quota is reached meanwhile
+            if (this.assemblyTable.pauseUnlessDone(5000)) {
+                break;
+            }
         }
 
         //All drones have been assembled
-        System.out.println("[" + Thread.currentThread().getName() + "] 20 drones assembled, ending...");
+        System.out.println("[" + Thread.currentThread().getName() + "] " + this.assemblyTable.getQuota() + " drones assembled, ending...");
     }
 }